@@ -1,8 +1,5 @@
 package com.college.attendance.config;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,7 +7,6 @@ import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
-import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -20,25 +16,10 @@ public class RateLimitingConfig {
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("buckets");
+        // One rate-limit bucket per (route class, client); idle clients are dropped after an hour
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(1, TimeUnit.HOURS)
-                .maximumSize(1000));
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(20_000));
         return cacheManager;
     }
-
-    // Rate limit for general API endpoints - 60 requests per minute per API key/IP
-    @Bean
-    public Bucket standardRateLimit() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(60, Refill.greedy(60, Duration.ofMinutes(1))))
-                .build();
-    }
-
-    // Rate limit for authentication endpoints - 10 requests per minute per IP
-    @Bean
-    public Bucket authRateLimit() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(10, Refill.greedy(10, Duration.ofMinutes(1))))
-                .build();
-    }
-} 
\ No newline at end of file
+}
\ No newline at end of file
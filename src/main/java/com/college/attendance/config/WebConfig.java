@@ -18,7 +18,7 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.allowed-origins:http://localhost:3000,http://localhost:8081,capacitor://localhost,null}")
     private String[] allowedOrigins;
     
-    @Value("${cors.allowed-methods:GET,POST,PUT,DELETE,OPTIONS}")
+    @Value("${cors.allowed-methods:GET,POST,PUT,PATCH,DELETE,OPTIONS}")
     private String[] allowedMethods;
     
     @Value("${cors.max-age:3600}")
@@ -41,7 +41,7 @@ public class WebConfig implements WebMvcConfigurer {
                     "https://fcit-edutrack.vercel.app",
                     "https://edutrack-frontend.vercel.app"
                 )
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
                 .allowCredentials(true)
                 .maxAge(3600);
@@ -1,18 +1,26 @@
 package com.college.attendance.controller;
 
 import com.college.attendance.dto.AssignmentDto;
+import com.college.attendance.dto.AssignmentSummaryDto;
+import com.college.attendance.dto.BulkGradingDto;
+import com.college.attendance.dto.BulkGradingResultDto;
 import com.college.attendance.dto.GradingDto;
+import com.college.attendance.dto.KeysetCursor;
+import com.college.attendance.dto.KeysetPage;
 import com.college.attendance.dto.SubmissionDto;
+import com.college.attendance.dto.SubmissionSummaryDto;
 import com.college.attendance.model.*;
 import com.college.attendance.repository.AssignmentRepository;
 import com.college.attendance.repository.AssignmentSubmissionRepository;
 import com.college.attendance.repository.CourseRepository;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedUser;
+import com.college.attendance.service.AssignmentGradingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -30,17 +38,16 @@ public class AssignmentController {
     private final AssignmentSubmissionRepository submissionRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final AssignmentGradingService assignmentGradingService;
     
     @PostMapping
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<Assignment>> createAssignment(
-            @Valid @RequestBody AssignmentDto assignmentDto) {
+            @Valid @RequestBody AssignmentDto assignmentDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User creator = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User creator = userRepository.getReferenceById(principal.getId());
         
         // Get the course
         Course course = courseRepository.findById(assignmentDto.getCourseId())
@@ -80,16 +87,29 @@ public class AssignmentController {
         );
     }
     
+    /**
+     * A page of the course's assignments ordered by due date. Pass the returned
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
+     */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Assignment>>> getAssignmentsByCourse(
-            @RequestParam Long courseId) {
+    public ResponseEntity<ApiResponse<KeysetPage<AssignmentSummaryDto>>> getAssignmentsByCourse(
+            @RequestParam Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         
-        Course course = courseRepository.findById(courseId)
-            .orElseThrow(() -> new IllegalArgumentException("Course not found"));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.size(size);
         
-        List<Assignment> assignments = assignmentRepository.findByCourse(course);
+        List<AssignmentSummaryDto> assignments = assignmentRepository.findSummariesByCourseIdAfter(
+            courseId, after.timestamp(), after.id(), Limit.of(pageSize + 1));
         
-        return ResponseEntity.ok(ApiResponse.success(assignments));
+        // Only an empty first page needs to tell a missing course from one without assignments
+        if (assignments.isEmpty() && cursor == null && !courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found");
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(KeysetPage.of(assignments, pageSize,
+            assignment -> new KeysetCursor(assignment.getDueDate(), assignment.getId()))));
     }
     
     @GetMapping("/all")
@@ -148,13 +168,11 @@ public class AssignmentController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<AssignmentSubmission>> submitAssignment(
             @PathVariable Long assignmentId,
-            @Valid @RequestBody SubmissionDto submissionDto) {
+            @Valid @RequestBody SubmissionDto submissionDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User student = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User student = userRepository.getReferenceById(principal.getId());
         
         // Get the assignment
         Assignment assignment = assignmentRepository.findById(assignmentId)
@@ -204,13 +222,11 @@ public class AssignmentController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<AssignmentSubmission>> editSubmission(
             @PathVariable Long submissionId,
-            @Valid @RequestBody SubmissionDto submissionDto) {
+            @Valid @RequestBody SubmissionDto submissionDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User student = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User student = userRepository.getReferenceById(principal.getId());
         
         // Get the submission
         AssignmentSubmission submission = submissionRepository.findById(submissionId)
@@ -267,16 +283,20 @@ public class AssignmentController {
         );
     }
     
+    /**
+     * A page of the assignment's submissions ordered by submission date. Pass the returned
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
+     */
     @GetMapping("/{assignmentId}/submissions")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<List<AssignmentSubmission>>> getSubmissions(
-            @PathVariable Long assignmentId) {
+    public ResponseEntity<ApiResponse<KeysetPage<SubmissionSummaryDto>>> getSubmissions(
+            @PathVariable Long assignmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User professor = userRepository.getReferenceById(principal.getId());
         
         // Get the assignment
         Assignment assignment = assignmentRepository.findById(assignmentId)
@@ -288,37 +308,48 @@ public class AssignmentController {
                 .body(ApiResponse.error("You can only view submissions for assignments you created"));
         }
         
-        List<AssignmentSubmission> submissions = submissionRepository.findByAssignment(assignment);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.size(size);
         
-        return ResponseEntity.ok(ApiResponse.success(submissions));
+        List<SubmissionSummaryDto> submissions = submissionRepository.findSummariesByAssignmentIdAfter(
+            assignmentId, after.timestamp(), after.id(), Limit.of(pageSize + 1));
+        
+        return ResponseEntity.ok(ApiResponse.success(KeysetPage.of(submissions, pageSize, AssignmentController::submissionKey)));
     }
     
+    /**
+     * A page of the student's own submissions ordered by submission date. Pass the returned
+     * {@code nextCursor} back as {@code cursor} to fetch the following page.
+     */
     @GetMapping("/submissions/student")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<ApiResponse<List<AssignmentSubmission>>> getStudentSubmissions() {
+    public ResponseEntity<ApiResponse<KeysetPage<SubmissionSummaryDto>>> getStudentSubmissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User student = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = KeysetPage.size(size);
         
-        List<AssignmentSubmission> submissions = submissionRepository.findByStudent(student);
+        List<SubmissionSummaryDto> submissions = submissionRepository.findSummariesByStudentIdAfter(
+            principal.getId(), after.timestamp(), after.id(), Limit.of(pageSize + 1));
         
-        return ResponseEntity.ok(ApiResponse.success(submissions));
+        return ResponseEntity.ok(ApiResponse.success(KeysetPage.of(submissions, pageSize, AssignmentController::submissionKey)));
+    }
+    
+    private static KeysetCursor submissionKey(SubmissionSummaryDto submission) {
+        return new KeysetCursor(submission.getSubmissionDate(), submission.getId());
     }
     
     @PostMapping("/submissions/{submissionId}/grade")
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<AssignmentSubmission>> gradeSubmission(
             @PathVariable Long submissionId,
-            @Valid @RequestBody GradingDto gradingDto) {
+            @Valid @RequestBody GradingDto gradingDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User professor = userRepository.getReferenceById(principal.getId());
         
         // Get the submission
         AssignmentSubmission submission = submissionRepository.findById(submissionId)
@@ -343,16 +374,32 @@ public class AssignmentController {
         );
     }
     
+    /**
+     * Grades several submissions at once. Grades that cannot be applied (unknown submission,
+     * someone else's assignment) are reported per item; the others are still saved.
+     */
+    @PostMapping("/submissions/grade")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<ApiResponse<BulkGradingResultDto>> gradeSubmissions(
+            @Valid @RequestBody BulkGradingDto bulkGradingDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        
+        BulkGradingResultDto result = assignmentGradingService.gradeSubmissions(
+            principal.getId(), bulkGradingDto.getGrades());
+        
+        return ResponseEntity.ok(
+            ApiResponse.success("Graded " + result.getGraded() + " of " + result.getResults().size() + " submissions", result)
+        );
+    }
+    
     @DeleteMapping("/{assignmentId}")
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<String>> deleteAssignment(
-            @PathVariable Long assignmentId) {
+            @PathVariable Long assignmentId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User professor = userRepository.getReferenceById(principal.getId());
         
         // Get the assignment
         Assignment assignment = assignmentRepository.findById(assignmentId)
@@ -375,13 +422,11 @@ public class AssignmentController {
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<Assignment>> updateAssignment(
             @PathVariable Long assignmentId,
-            @Valid @RequestBody AssignmentDto assignmentDto) {
+            @Valid @RequestBody AssignmentDto assignmentDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User professor = userRepository.getReferenceById(principal.getId());
         
         // Get the assignment
         Assignment assignment = assignmentRepository.findById(assignmentId)
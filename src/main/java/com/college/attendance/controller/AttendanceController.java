@@ -6,6 +6,7 @@ import com.college.attendance.dto.UserDto;
 import com.college.attendance.exception.ResourceNotFoundException;
 import com.college.attendance.model.User;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedUser;
 import com.college.attendance.service.AttendanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,9 +17,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -36,26 +37,21 @@ public class AttendanceController {
     @PostMapping("/record")
     @PreAuthorize("hasRole('STUDENT')") // Ensure only students can record attendance this way
     public ResponseEntity<ApiResponse<AttendanceResponseDto>> recordAttendance(
-            @Valid @RequestBody AttendanceRecordDto attendanceDto) {
+            @Valid @RequestBody AttendanceRecordDto attendanceDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        User user = userRepository.getReferenceById(principal.getId());
 
         AttendanceResponseDto response = attendanceService.recordAttendance(user, attendanceDto);
         return ResponseEntity.ok(ApiResponse.success("Attendance recorded successfully", response));
     }
 
     @PostMapping("/enroll/{courseId}")
-    public ResponseEntity<ApiResponse<String>> enrollInCourse(@PathVariable Long courseId) {
+    public ResponseEntity<ApiResponse<String>> enrollInCourse(@PathVariable Long courseId, @AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Student not found with username: " + username));
+        User user = userRepository.getReferenceById(principal.getId());
 
         // Optional: Add an explicit check, although @PreAuthorize should handle it
         // if (user.getRole() != com.college.attendance.model.Role.STUDENT) {
@@ -90,12 +86,10 @@ public class AttendanceController {
 
     @GetMapping("/user/current/course/{courseId}")
     public ResponseEntity<ApiResponse<List<AttendanceResponseDto>>> getCurrentUserAttendanceForCourse(
-            @PathVariable Long courseId) {
+            @PathVariable Long courseId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+        User user = userRepository.getReferenceById(principal.getId());
         List<AttendanceResponseDto> attendanceList =
                 attendanceService.getUserAttendanceForCourse(user.getId(), courseId);
         return ResponseEntity.ok(ApiResponse.success(attendanceList));
@@ -144,14 +138,9 @@ public class AttendanceController {
 
     @GetMapping("/course/{courseId}/spreadsheet")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<byte[]> getCourseAttendanceSpreadsheet(@PathVariable Long courseId) {
+    public ResponseEntity<StreamingResponseBody> getCourseAttendanceSpreadsheet(@PathVariable Long courseId) {
         // Exceptions handled by RestExceptionHandler
-        byte[] csvBytes = attendanceService.getCourseAttendanceSpreadsheet(courseId);
-
-        // Check if service returned empty data (e.g., no records found)
-        // The service throws IllegalStateException if no records, which RestExceptionHandler handles (returning 204)
-        // If the service might return an empty byte array instead of throwing, handle it here:
-        if (csvBytes == null || csvBytes.length == 0) {
+        if (!attendanceService.hasAttendanceRecords(courseId)) {
              return ResponseEntity.noContent().build(); // Return 204 No Content
         }
 
@@ -160,6 +149,8 @@ public class AttendanceController {
         headers.setContentDispositionFormData("attachment",
                 String.format("attendance-course-%d-%s.csv", courseId, LocalDate.now()));
 
-        return new ResponseEntity<>(csvBytes, headers, HttpStatus.OK);
+        // Rows are written to the response as they are read, without buffering the whole file
+        StreamingResponseBody body = out -> attendanceService.writeCourseAttendanceSpreadsheet(courseId, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 }
\ No newline at end of file
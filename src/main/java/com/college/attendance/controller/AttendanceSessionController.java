@@ -2,9 +2,9 @@ package com.college.attendance.controller;
 
 import com.college.attendance.dto.CreateSessionRequestDto;
 import com.college.attendance.dto.SessionDto;
-import com.college.attendance.exception.ResourceNotFoundException;
 import com.college.attendance.model.User;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedUser;
 import com.college.attendance.service.AttendanceSessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,8 +12,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*; // Use wildcard for common annotations
 import java.util.List; // Added import
 import com.college.attendance.dto.UserDto; // Added import
@@ -30,14 +29,12 @@ public class AttendanceSessionController {
     @PostMapping("/create")
     @PreAuthorize("hasRole('PROFESSOR')") // Only professors can create sessions
     public ResponseEntity<ApiResponse<SessionDto>> createAttendanceSession(
-            @Valid @RequestBody CreateSessionRequestDto createSessionRequest) {
+            @Valid @RequestBody CreateSessionRequestDto createSessionRequest,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
 
         // Get the authenticated professor
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Professor not found with username: " + username));
+        User professor = userRepository.getReferenceById(principal.getId());
 
         // Call the service to create the session
         SessionDto sessionDto = attendanceSessionService.createAttendanceSession(
@@ -52,12 +49,9 @@ public class AttendanceSessionController {
 
     @GetMapping("/active")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<List<SessionDto>>> getActiveSessions() {
+    public ResponseEntity<ApiResponse<List<SessionDto>>> getActiveSessions(@AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Professor not found with username: " + username));
+        User professor = userRepository.getReferenceById(principal.getId());
 
         List<SessionDto> activeSessions = attendanceSessionService.getActiveSessionsForProfessor(professor);
         return ResponseEntity.ok(ApiResponse.success("Active sessions retrieved successfully", activeSessions));
@@ -65,12 +59,9 @@ public class AttendanceSessionController {
 
     @GetMapping("/{sessionId}/attendees")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<List<UserDto>>> getSessionAttendees(@PathVariable Long sessionId) {
+    public ResponseEntity<ApiResponse<List<UserDto>>> getSessionAttendees(@PathVariable Long sessionId, @AuthenticationPrincipal AuthenticatedUser principal) {
         // Exceptions handled by RestExceptionHandler
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Professor not found with username: " + username));
+        User professor = userRepository.getReferenceById(principal.getId());
 
         List<UserDto> attendees = attendanceSessionService.getSessionAttendees(sessionId, professor);
         return ResponseEntity.ok(ApiResponse.success("Session attendees retrieved successfully", attendees));
@@ -78,22 +69,16 @@ public class AttendanceSessionController {
 
     @GetMapping("/class-days-count/{courseId}")
     // Removed @PreAuthorize so both students and professors can access
-    public ResponseEntity<ApiResponse<Integer>> getClassDaysCount(@PathVariable Long courseId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
+    public ResponseEntity<ApiResponse<Integer>> getClassDaysCount(@PathVariable Long courseId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        User user = userRepository.getReferenceById(principal.getId());
         int count = attendanceSessionService.getClassDaysCount(user, courseId);
         return ResponseEntity.ok(ApiResponse.success("Class days count retrieved successfully", count));
     }
 
     @PostMapping("/class-days-count/{courseId}/reset")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<Void>> resetClassDaysCount(@PathVariable Long courseId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Professor not found with username: " + username));
+    public ResponseEntity<ApiResponse<Void>> resetClassDaysCount(@PathVariable Long courseId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        User professor = userRepository.getReferenceById(principal.getId());
         attendanceSessionService.resetClassDaysCount(professor, courseId);
         return ResponseEntity.ok(ApiResponse.success("Class days count reset successfully", null));
     }
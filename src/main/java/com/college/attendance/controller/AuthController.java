@@ -11,6 +11,7 @@ import com.college.attendance.dto.VerifyResetCodeRequest;
 import com.college.attendance.exception.ResourceNotFoundException;
 import com.college.attendance.model.User;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedPrincipalCache;
 import com.college.attendance.security.CustomUserDetailsService;
 import com.college.attendance.security.JwtTokenUtil;
 import com.college.attendance.service.EmailService;
@@ -50,6 +51,7 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final UserVerificationService userVerificationService;
+    private final AuthenticatedPrincipalCache principalCache;
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
     @PostMapping("/login")
@@ -196,6 +198,7 @@ public class AuthController {
         user.setEmailVerified(true);
         user.setVerificationCode(null); // Clear the code
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
         
         // Generate JWT token
         final UserDetails userDetails = userDetailsService
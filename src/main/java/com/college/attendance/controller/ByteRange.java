@@ -0,0 +1,54 @@
+package com.college.attendance.controller;
+
+/**
+ * A single byte range from an HTTP {@code Range} header, with inclusive bounds.
+ */
+record ByteRange(long start, long end) {
+
+    static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Parses a {@code Range} header against a representation of {@code size} bytes.
+     *
+     * @return the range to send, {@link #UNSATISFIABLE} if it lies beyond the end, or
+     *         {@code null} if the header should be ignored and the whole file sent
+     *         (malformed, another unit, or several ranges).
+     */
+    static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return suffix < 0 ? null : UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
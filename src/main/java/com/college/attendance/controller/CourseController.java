@@ -2,13 +2,12 @@ package com.college.attendance.controller;
 
 import com.college.attendance.dto.CourseDto;
 import com.college.attendance.model.Course;
-import com.college.attendance.model.User;
 import com.college.attendance.repository.CourseRepository;
-import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedUser;
+import com.college.attendance.service.EnrollmentMembershipService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.DayOfWeek;
@@ -22,7 +21,7 @@ import java.util.stream.Collectors;
 public class CourseController {
 
     private final CourseRepository courseRepository;
-    private final UserRepository userRepository;
+    private final EnrollmentMembershipService enrollmentMembership;
     
     @GetMapping
     public ResponseEntity<ApiResponse<List<CourseDto>>> getAllCourses() {
@@ -49,16 +48,9 @@ public class CourseController {
     }
     
     @GetMapping("/enrolled")
-    public ResponseEntity<ApiResponse<List<CourseDto>>> getEnrolledCourses() {
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
+    public ResponseEntity<ApiResponse<List<CourseDto>>> getEnrolledCourses(@AuthenticationPrincipal AuthenticatedUser principal) {
         // Get courses the user is enrolled in
-        List<CourseDto> enrolledCourses = user.getCourses().stream()
+        List<CourseDto> enrolledCourses = courseRepository.findAllById(enrollmentMembership.courseIdsOf(principal.getId())).stream()
             .map(CourseDto::fromEntity)
             .collect(Collectors.toList());
             
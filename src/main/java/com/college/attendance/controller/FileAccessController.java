@@ -1,77 +1,164 @@
 package com.college.attendance.controller;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import com.college.attendance.service.FileStorageService;
+import com.college.attendance.service.FileStorageService.LocalFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
+@RequiredArgsConstructor
 public class FileAccessController {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    // Tomcat's sendfile hand-off: the connector writes the file region itself
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "private, max-age=86400";
+
+    private final FileStorageService fileStorageService;
 
     /**
-     * Get any file for authenticated users
+     * Get any file for authenticated users. For images, {@code size} asks for a downscaled
+     * copy at least that many pixels wide.
      */
     @GetMapping("/{fileName:.+}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Resource> getFile(@PathVariable String fileName) {
-        return serveFile(fileName);
+    public void getFile(@PathVariable String fileName,
+                        @RequestParam(required = false) Integer size,
+                        HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        serveFile(resolve(fileName, size), request, response);
     }
 
     /**
-     * Get professor ID image (admin only)
+     * Get professor ID image (admin only), optionally downscaled like {@link #getFile}
      */
     @GetMapping("/professor-id/{fileName:.+}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Resource> getProfessorIdImage(@PathVariable String fileName) {
-        return serveFile(fileName);
+    public void getProfessorIdImage(@PathVariable String fileName,
+                                    @RequestParam(required = false) Integer size,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response) throws IOException {
+        Optional<LocalFile> file = resolve("professor-id/" + fileName, size)
+            .or(() -> resolve(fileName, size));
+        serveFile(file, request, response);
+    }
+
+    private Optional<LocalFile> resolve(String storageName, Integer size) {
+        return size != null
+            ? fileStorageService.resolveImage(storageName, size)
+            : fileStorageService.resolve(storageName);
     }
 
     /**
-     * Common method to serve a file
+     * Common method to serve a file, honouring conditional and single-range requests.
+     * The body is transferred by the connector's sendfile when available, and otherwise
+     * with {@link FileChannel#transferTo}.
      */
-    private ResponseEntity<Resource> serveFile(String fileName) {
-        try {
-            // Create the full path to the file
-            Path filePath = Paths.get(uploadDir).resolve(fileName).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
+    private void serveFile(Optional<LocalFile> found,
+                           HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        if (found.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        LocalFile file = found.get();
+        String etag = file.etag();
+        long lastModified = file.lastModified().toEpochMilli();
 
-            // Check if the file exists and is readable
-            if (resource.exists() && resource.isReadable()) {
-                // Determine the content type
-                String contentType;
-                try {
-                    contentType = Files.probeContentType(filePath);
-                } catch (IOException e) {
-                    contentType = "application/octet-stream";
-                }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        // Sets ETag and Last-Modified, and answers 304 when the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long size = file.size();
+        ByteRange range = null;
+        if (ifRangeMatches(request, etag, lastModified)) {
+            range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+        }
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+        } else {
+            range = new ByteRange(0, size - 1);
+        }
 
-                // Return the file
-                return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
+        response.setContentType(file.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+            .filename(file.fileName(), StandardCharsets.UTF_8)
+            .build()
+            .toString());
+        response.setContentLengthLong(range.length());
+        if ("HEAD".equals(request.getMethod()) || range.length() == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
             }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().build();
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * A Range request with If-Range only applies if the client's copy is still current;
+     * otherwise the whole file is sent.
+     */
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -1,19 +1,39 @@
 package com.college.attendance.controller;
 
 import com.college.attendance.controller.ApiResponse; // Correct package for ApiResponse
+import com.college.attendance.dto.ChunkedUploadRequestDto;
+import com.college.attendance.dto.ChunkedUploadSessionDto;
+import com.college.attendance.dto.UploadStatusDto;
 import com.college.attendance.model.FileInfo;
+import com.college.attendance.security.AuthenticatedUser;
+import com.college.attendance.service.AsyncUploadService;
+import com.college.attendance.service.ChunkedUploadService;
 import com.college.attendance.service.CloudinaryService; // Import CloudinaryService
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j; // Add logger
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/upload") // Keep the base path consistent with API doc
@@ -22,6 +42,10 @@ import java.io.IOException;
 public class FileUploadController {
 
     private final CloudinaryService cloudinaryService; // Inject CloudinaryService
+    private final AsyncUploadService asyncUploadService;
+    private final ChunkedUploadService chunkedUploadService;
+
+    private static final int MAX_STATUS_WAIT_SECONDS = 20;
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -44,7 +68,7 @@ public class FileUploadController {
             }
             
             // Upload the file to Cloudinary
-            String fileUrl = cloudinaryService.uploadFile(file);
+            String fileUrl = uploadSpooled(file);
 
             // Create FileInfo object with Cloudinary URL
             FileInfo fileInfo = new FileInfo(
@@ -71,6 +95,131 @@ public class FileUploadController {
         }
     }
     
+    /**
+     * Accepts a file for background upload and returns immediately with a pending handle.
+     * Poll {@code GET /api/upload/async/{uploadId}} for the final URL.
+     */
+    @PostMapping("/async")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<UploadStatusDto>> uploadFileAsync(
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Please select a file to upload"));
+        }
+        String contentType = file.getContentType();
+        if (contentType == null || contentType.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Unsupported or unknown file type"));
+        }
+        
+        try {
+            UploadStatusDto upload = asyncUploadService.submit(file, principal.getId());
+            log.info("File accepted for async upload {}: {}", upload.getUploadId(), file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("File accepted for upload", upload));
+        } catch (RejectedExecutionException e) {
+            log.warn("Async upload queue full, rejecting {}", file.getOriginalFilename());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Too many uploads in progress, please retry shortly"));
+        } catch (IOException e) {
+            log.error("Failed to spool file for async upload: {}", e.getMessage(), e);
+            return ResponseEntity.status(500)
+                .body(ApiResponse.error("Failed to upload file: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * State of an asynchronous upload. With {@code waitSeconds}, the response is held (without
+     * a request thread) until the upload finishes or that many seconds pass, up to 20.
+     */
+    @GetMapping("/async/{uploadId}")
+    @PreAuthorize("isAuthenticated()")
+    public CompletableFuture<ResponseEntity<ApiResponse<UploadStatusDto>>> getUploadStatus(
+            @PathVariable String uploadId,
+            @RequestParam(defaultValue = "0") int waitSeconds,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        
+        int wait = Math.max(0, Math.min(waitSeconds, MAX_STATUS_WAIT_SECONDS));
+        CompletableFuture<UploadStatusDto> status = wait == 0
+            ? CompletableFuture.completedFuture(asyncUploadService.getStatus(uploadId, principal.getId()))
+            : asyncUploadService.awaitStatus(uploadId, principal.getId(), Duration.ofSeconds(wait));
+        return status.thenApply(upload -> ResponseEntity.ok(ApiResponse.success(upload)));
+    }
+    
+    /**
+     * Starts a chunked, resumable upload. Send the file with
+     * {@code PUT /api/upload/sessions/{uploadId}?offset=N} (raw bytes, any number of chunks),
+     * then {@code POST /api/upload/sessions/{uploadId}/complete}.
+     */
+    @PostMapping("/sessions")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<ChunkedUploadSessionDto>> createUploadSession(
+            @Valid @RequestBody ChunkedUploadRequestDto request,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        
+        ChunkedUploadSessionDto session = chunkedUploadService.create(principal.getId(), request);
+        log.info("Chunked upload {} started: {} ({} bytes)", session.getUploadId(), request.getFileName(), request.getFileSize());
+        return ResponseEntity.ok(ApiResponse.success("Upload session created", session));
+    }
+    
+    /**
+     * How much of a chunked upload has arrived; a client resumes from {@code receivedBytes}.
+     */
+    @GetMapping("/sessions/{uploadId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<ChunkedUploadSessionDto>> getUploadSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        
+        return ResponseEntity.ok(ApiResponse.success(chunkedUploadService.getSession(uploadId, principal.getId())));
+    }
+    
+    @PutMapping("/sessions/{uploadId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<ChunkedUploadSessionDto>> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        
+        ChunkedUploadSessionDto session = chunkedUploadService.appendChunk(
+            uploadId, principal.getId(), offset, request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Chunk received", session));
+    }
+    
+    /**
+     * Finishes a chunked upload and queues the file for storage, like {@code POST /api/upload/async}.
+     */
+    @PostMapping("/sessions/{uploadId}/complete")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<UploadStatusDto>> completeUploadSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        
+        try {
+            UploadStatusDto upload = chunkedUploadService.complete(uploadId, principal.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("File accepted for upload", upload));
+        } catch (RejectedExecutionException e) {
+            log.warn("Async upload queue full, keeping chunked upload {} open", uploadId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error("Too many uploads in progress, please retry shortly"));
+        }
+    }
+    
+    @DeleteMapping("/sessions/{uploadId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<String>> cancelUploadSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal AuthenticatedUser principal) throws IOException {
+        
+        chunkedUploadService.cancel(uploadId, principal.getId());
+        return ResponseEntity.ok(ApiResponse.success("Upload cancelled"));
+    }
+    
     @PostMapping("/public")
     public ResponseEntity<ApiResponse<FileInfo>> uploadPublicFile(
             @RequestParam("file") MultipartFile file,
@@ -92,7 +241,7 @@ public class FileUploadController {
             // For public uploads like professor IDs, we might want a specific folder or naming convention,
             // but for now, let's use the default behavior which includes a UUID.
             // If a specific public ID is needed based on fileType, we could use the other uploadFile method.
-            String fileUrl = cloudinaryService.uploadFile(file);
+            String fileUrl = uploadSpooled(file);
 
             // Create FileInfo object with Cloudinary URL
              FileInfo fileInfo = new FileInfo(
@@ -118,4 +267,20 @@ public class FileUploadController {
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
+    
+    /**
+     * Uploads to Cloudinary from a spooled copy on local disk, so the SDK streams the file
+     * instead of it being read into the heap. The caller still waits for the final URL; use
+     * {@code POST /api/upload/async} to avoid holding the request thread.
+     */
+    private String uploadSpooled(MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile("upload-", ".part");
+        try {
+            // Moves (or streams) the container's temporary part file
+            file.transferTo(spooled);
+            return cloudinaryService.uploadFile(spooled, file.getOriginalFilename());
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.college.attendance.model.Role;
 import com.college.attendance.model.User;
 import com.college.attendance.repository.ProfessorRequestRepository;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedPrincipalCache;
 import com.college.attendance.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +33,7 @@ public class ProfessorRequestController {
     private final UserRepository userRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @PostMapping
     public ResponseEntity<ApiResponse<ProfessorRequest>> submitRequest(
@@ -138,6 +140,7 @@ public class ProfessorRequestController {
             professor.setProfessorRequest(request);
             
             userRepository.save(professor);
+            principalCache.invalidate(professor.getUsername());
             
             // Send email with credentials
             try {
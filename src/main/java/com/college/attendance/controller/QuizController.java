@@ -1,51 +1,77 @@
 package com.college.attendance.controller;
 
+import com.college.attendance.dto.QuestionDto;
+import com.college.attendance.dto.QuestionOptionDto;
+import com.college.attendance.dto.QuizAnswerBatchDto;
 import com.college.attendance.dto.QuizAttemptDto;
+import com.college.attendance.dto.QuizDetailDto;
 import com.college.attendance.dto.QuizDto;
+import com.college.attendance.dto.QuizStatisticsDto;
+import com.college.attendance.dto.QuizSummaryDto;
 import com.college.attendance.model.*;
 import com.college.attendance.repository.*;
+import com.college.attendance.security.AuthenticatedUser;
+import com.college.attendance.service.QuizAttemptFinalizer;
+import com.college.attendance.service.QuizAttemptRegistry;
+import com.college.attendance.service.QuizAvailabilityIndex;
+import com.college.attendance.service.QuizGradingService;
+import com.college.attendance.service.QuizStatisticsService;
+import com.college.attendance.service.QuizSubmissionExportService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/quizzes")
 @RequiredArgsConstructor
+@Slf4j
 public class QuizController {
     
     private final QuizRepository quizRepository;
     private final QuestionRepository questionRepository;
-    private final QuestionOptionRepository questionOptionRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final QuizAttemptRepository quizAttemptRepository;
     private final QuizAnswerRepository quizAnswerRepository;
+    private final QuizGradingService quizGradingService;
+    private final QuizAttemptRegistry quizAttemptRegistry;
+    private final QuizAttemptFinalizer quizAttemptFinalizer;
+    private final QuizAvailabilityIndex quizAvailabilityIndex;
+    private final QuizStatisticsService quizStatisticsService;
+    private final QuizSubmissionExportService quizSubmissionExportService;
+    
+    private static final Comparator<Question> QUESTION_ORDER = Comparator
+        .comparing(Question::getOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(Question::getId);
+    
+    private static final Comparator<QuestionOption> OPTION_ORDER = Comparator
+        .comparing(QuestionOption::getOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(QuestionOption::getId);
     
     @PostMapping
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<Quiz>> createQuiz(@Valid @RequestBody QuizDto quizDto) {
+    public ResponseEntity<ApiResponse<Quiz>> createQuiz(@Valid @RequestBody QuizDto quizDto, @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User creator = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            User creator = userRepository.getReferenceById(principal.getId());
             
             // Get the course
             Course course = courseRepository.findById(quizDto.getCourseId())
@@ -110,6 +136,7 @@ public class QuizController {
             
             // Save the entire graph at once
             Quiz savedQuiz = quizRepository.save(quiz);
+            quizAvailabilityIndex.invalidate(course.getId());
             
             // To prevent circular reference issues, create a clean response without circular references
             Quiz responseQuiz = quizRepository.findById(savedQuiz.getId())
@@ -132,65 +159,44 @@ public class QuizController {
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Quiz>>> getQuizzesByCourse(
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getQuizzesByCourse(
             @RequestParam Long courseId) {
         
-        Course course = courseRepository.findById(courseId)
-            .orElseThrow(() -> new IllegalArgumentException("Course not found"));
-        
-        List<Quiz> quizzes = quizRepository.findByCourse(course);
+        // One projection query; the course is only looked up when it has no quizzes
+        List<QuizSummaryDto> quizzes = quizRepository.findSummariesByCourseId(courseId);
+        if (quizzes.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found");
+        }
         
         return ResponseEntity.ok(ApiResponse.success(quizzes));
     }
     
     @GetMapping("/available")
-    public ResponseEntity<ApiResponse<List<Quiz>>> getAvailableQuizzes(
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getAvailableQuizzes(
             @RequestParam Long courseId) {
         try {
-            Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new IllegalArgumentException("Course not found"));
-            
             LocalDateTime now = LocalDateTime.now();
-            System.out.println("Current time: " + now);
             
-            // First get all quizzes for the course
-            List<Quiz> allQuizzes = quizRepository.findByCourse(course);
-            System.out.println("Total quizzes for course: " + allQuizzes.size());
-            
-            // Log details about each quiz
-            for (Quiz quiz : allQuizzes) {
-                System.out.println("Quiz ID: " + quiz.getId() + 
-                                   ", Title: " + quiz.getTitle() + 
-                                   ", Start Date: " + quiz.getStartDate() + 
-                                   ", End Date: " + quiz.getEndDate());
-            }
-            
-            // Get available quizzes using the improved repository method
-            List<Quiz> availableQuizzes = quizRepository.findAvailableQuizzesByCourse(course, now);
-            
-            System.out.println("Available quizzes: " + availableQuizzes.size());
+            // Answered from the course's cached availability index
+            List<QuizSummaryDto> availableQuizzes = quizAvailabilityIndex.findAvailable(courseId, now);
+            log.debug("{} quiz(zes) available for course {} at {}", availableQuizzes.size(), courseId, now);
             
             return ResponseEntity.ok(ApiResponse.success(availableQuizzes));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Error retrieving available quizzes for course {}: {}", courseId, e.getMessage(), e);
             return ResponseEntity.internalServerError()
                 .body(ApiResponse.error("Error retrieving available quizzes: " + e.getMessage()));
         }
     }
     
     @GetMapping("/{quizId}")
-    public ResponseEntity<ApiResponse<Quiz>> getQuizById(@PathVariable Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
+    public ResponseEntity<ApiResponse<QuizDetailDto>> getQuizById(@PathVariable Long quizId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        QuizSummaryDto quiz = quizRepository.findSummaryById(quizId)
             .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         
-        // Get authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
         // If student, check if quiz is available
-        if (user.getRole() == Role.STUDENT) {
+        boolean student = principal.getRole() == Role.STUDENT;
+        if (student) {
             LocalDateTime now = LocalDateTime.now();
             
             if (now.isBefore(quiz.getStartDate()) || now.isAfter(quiz.getEndDate())) {
@@ -199,20 +205,44 @@ public class QuizController {
             }
         }
         
-        return ResponseEntity.ok(ApiResponse.success(quiz));
+        // Questions and options in one fetch-joined query; attempts are never loaded.
+        // Correct answers are only revealed to the professor who created the quiz
+        boolean owner = quiz.getCreator().equals(principal.getId());
+        List<QuestionDto> questions = questionRepository.findWithOptionsByQuizId(quizId).stream()
+            .sorted(QUESTION_ORDER)
+            .map(question -> toQuestionDto(question, owner))
+            .collect(Collectors.toList());
+        
+        QuizDetailDto detail = new QuizDetailDto(
+            quiz.getId(), quiz.getTitle(), quiz.getDescription(), quiz.getStartDate(), quiz.getEndDate(),
+            quiz.getDurationMinutes(), quiz.getCourse(), quiz.getCreator(), questions);
+        
+        return ResponseEntity.ok(ApiResponse.success(detail));
+    }
+    
+    private static QuestionDto toQuestionDto(Question question, boolean includeAnswers) {
+        List<QuestionOptionDto> options = null;
+        if (question.getOptions() != null) {
+            options = question.getOptions().stream()
+                .sorted(OPTION_ORDER)
+                .map(option -> new QuestionOptionDto(
+                    option.getId(), option.getText(), includeAnswers ? option.isCorrect() : null, option.getOrder()))
+                .collect(Collectors.toList());
+        }
+        return new QuestionDto(
+            question.getId(), question.getText(), question.getImageUrl(), question.getType(), question.getPoints(),
+            question.getOrder(), options, includeAnswers ? question.getCorrectAnswer() : null);
     }
     
     @PutMapping("/{quizId}")
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<Quiz>> updateQuiz(
             @PathVariable Long quizId, 
-            @Valid @RequestBody QuizDto quizDto) {
+            @Valid @RequestBody QuizDto quizDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            User professor = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            User professor = userRepository.getReferenceById(principal.getId());
                 
             // Get the quiz
             Quiz quiz = quizRepository.findById(quizId)
@@ -297,6 +327,9 @@ public class QuizController {
             
             // Save the entire graph at once
             Quiz updatedQuiz = quizRepository.save(quiz);
+            quizGradingService.evictAnswerKey(quizId);
+            quizAttemptRegistry.updateWindow(updatedQuiz);
+            quizAvailabilityIndex.invalidate(updatedQuiz.getCourse().getId());
             
             // Clear any circular references
             if (updatedQuiz.getQuestions() != null) {
@@ -317,56 +350,70 @@ public class QuizController {
     
     @PostMapping("/{quizId}/start")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<ApiResponse<QuizAttempt>> startQuiz(@PathVariable Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+    public ResponseEntity<ApiResponse<QuizAttempt>> startQuiz(@PathVariable Long quizId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        // Availability, existing attempts and completion are answered from memory
+        QuizAttemptRegistry.StartResult result =
+            quizAttemptRegistry.start(quizId, principal.getId(), LocalDateTime.now());
         
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User student = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        switch (result.outcome()) {
+            case NOT_AVAILABLE:
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Quiz is not available at this time"));
+            case COMPLETED:
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("You have already completed this quiz"));
+            case CONTINUED:
+                QuizAttempt existingAttempt = quizAttemptRepository.findById(result.attemptId())
+                    .orElseThrow(() -> new IllegalArgumentException("No active quiz attempt found"));
+                return ResponseEntity.ok(
+                    ApiResponse.success("Continuing existing attempt", existingAttempt)
+                );
+            default:
+                break;
+        }
         
-        // Check if quiz is available
-        LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(quiz.getStartDate()) || now.isAfter(quiz.getEndDate())) {
-            return ResponseEntity.badRequest()
-                .body(ApiResponse.error("Quiz is not available at this time"));
+        // Complete the attempt on the server if the client never submits
+        if (result.deadline() != null) {
+            quizAttemptFinalizer.schedule(result.attemptId(), result.deadline());
         }
         
-        // Check if student already has an active attempt
-        Optional<QuizAttempt> existingAttempt = 
-            quizAttemptRepository.findByQuizAndStudentAndCompleted(quiz, student, false);
+        // The attempt has already been inserted; describe it without reading it back
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setId(result.attemptId());
+        attempt.setQuiz(quizRepository.getReferenceById(quizId));
+        attempt.setStudent(userRepository.getReferenceById(principal.getId()));
+        attempt.setStartTime(result.startTime());
+        attempt.setCompleted(false);
         
-        if (existingAttempt.isPresent()) {
-            return ResponseEntity.ok(
-                ApiResponse.success("Continuing existing attempt", existingAttempt.get())
-            );
-        }
+        return ResponseEntity.ok(
+            ApiResponse.success("Quiz started successfully", attempt)
+        );
+    }
+    
+    @PatchMapping("/{quizId}/attempts/current/answers")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> saveAnswers(
+            @PathVariable Long quizId,
+            @Valid @RequestBody QuizAnswerBatchDto answerBatch,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
-        // Check if student has already completed this quiz
-        List<QuizAttempt> completedAttempts = 
-            quizAttemptRepository.findByQuizAndStudent(quiz, student)
-                .stream()
-                .filter(QuizAttempt::isCompleted)
-                .collect(Collectors.toList());
+        QuizAttemptRegistry.ActiveAttempt attempt = quizAttemptRegistry.findActiveAttempt(quizId, principal.getId())
+            .orElseThrow(() -> new IllegalArgumentException("No active quiz attempt found"));
         
-        if (!completedAttempts.isEmpty()) {
+        if (attempt.deadline() != null && LocalDateTime.now().isAfter(attempt.deadline())) {
             return ResponseEntity.badRequest()
-                .body(ApiResponse.error("You have already completed this quiz"));
+                .body(ApiResponse.error("Time is up for this quiz attempt"));
         }
         
-        // Create a new attempt
-        QuizAttempt attempt = new QuizAttempt();
-        attempt.setQuiz(quiz);
-        attempt.setStudent(student);
-        attempt.setStartTime(now);
-        attempt.setCompleted(false);
+        // Answers are graded and buffered now, and written in batches shortly after
+        int saved = quizGradingService.autosave(quizId, attempt.attemptId(), answerBatch.getAnswers());
         
-        QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
+        Map<String, Object> response = new HashMap<>();
+        response.put("attemptId", attempt.attemptId());
+        response.put("savedAnswers", saved);
         
         return ResponseEntity.ok(
-            ApiResponse.success("Quiz started successfully", savedAttempt)
+            ApiResponse.success("Answers saved", response)
         );
     }
     
@@ -374,16 +421,14 @@ public class QuizController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> submitQuiz(
             @PathVariable Long quizId,
-            @Valid @RequestBody QuizAttemptDto attemptDto) {
+            @Valid @RequestBody QuizAttemptDto attemptDto,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         Quiz quiz = quizRepository.findById(quizId)
             .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User student = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User student = userRepository.getReferenceById(principal.getId());
         
         // Find the active attempt
         QuizAttempt attempt = quizAttemptRepository
@@ -396,94 +441,32 @@ public class QuizController {
         
         boolean timeIsUp = now.isAfter(endTime);
         
-        // Process answers
-        List<QuizAnswer> answers = new ArrayList<>();
-        int score = 0;
-        int maxScore = 0;
-        
-        for (var answerDto : attemptDto.getAnswers()) {
-            Question question = questionRepository.findById(answerDto.getQuestionId())
-                .orElseThrow(() -> new IllegalArgumentException("Question not found"));
-            
-            QuizAnswer answer = new QuizAnswer();
-            answer.setAttempt(attempt);
-            answer.setQuestion(question);
-            
-            if (question.getType() == QuestionType.MULTIPLE_CHOICE) {
-                if (answerDto.getSelectedOptionId() != null) {
-                    QuestionOption option = questionOptionRepository
-                        .findById(answerDto.getSelectedOptionId())
-                        .orElse(null);
-                    
-                    answer.setSelectedOption(option);
-                    
-                    // Auto-grade multiple choice
-                    if (option != null && option.isCorrect()) {
-                        answer.setPointsAwarded(question.getPoints());
-                        score += question.getPoints();
-                    } else {
-                        answer.setPointsAwarded(0);
-                    }
-                    
-                    answer.setGraded(true);
-                }
-            } else if (question.getType() == QuestionType.TEXT_ANSWER) {
-                answer.setTextAnswer(answerDto.getTextAnswer());
-                
-                // Auto-grade text answers if they match exactly
-                if (answerDto.getTextAnswer() != null && 
-                    answerDto.getTextAnswer().equalsIgnoreCase(question.getCorrectAnswer())) {
-                    answer.setPointsAwarded(question.getPoints());
-                    score += question.getPoints();
-                } else {
-                    answer.setPointsAwarded(0);
-                }
-                
-                answer.setGraded(true);
-            }
-            
-            QuizAnswer savedAnswer = quizAnswerRepository.save(answer);
-            answers.add(savedAnswer);
-            
-            maxScore += question.getPoints();
-        }
-        
-        // Update the attempt WITHOUT setting the answers collection
-        // to avoid orphan deletion cascading
-        attempt.setEndTime(now);
-        attempt.setCompleted(true);
-        attempt.setScore(score);
-        attempt.setMaxScore(maxScore);
-        
-        QuizAttempt savedAttempt = quizAttemptRepository.save(attempt);
-        
-        // To avoid circular reference issues in the response and Hibernate orphan deletion,
-        // we'll work with a detached copy of the quiz attempt
-        QuizAttempt savedAttemptWithId = savedAttempt;
+        // Grade all answers in memory and store them in one batch
+        QuizGradingService.GradingResult result = quizGradingService.submitAttempt(attempt, attemptDto.getAnswers(), now);
+        quizAttemptRegistry.markCompleted(quizId, principal.getId());
+        quizAttemptFinalizer.cancel(attempt.getId());
         
         // Create a simplified response object to avoid circular references
         Map<String, Object> simplifiedResponse = new HashMap<>();
-        simplifiedResponse.put("id", savedAttemptWithId.getId());
-        simplifiedResponse.put("quiz", savedAttemptWithId.getQuiz() != null ? savedAttemptWithId.getQuiz().getId() : null);
-        simplifiedResponse.put("student", savedAttemptWithId.getStudent() != null ? savedAttemptWithId.getStudent().getId() : null);
-        simplifiedResponse.put("startTime", savedAttemptWithId.getStartTime());
-        simplifiedResponse.put("endTime", savedAttemptWithId.getEndTime());
-        simplifiedResponse.put("completed", savedAttemptWithId.isCompleted());
-        simplifiedResponse.put("score", savedAttemptWithId.getScore());
-        simplifiedResponse.put("maxScore", savedAttemptWithId.getMaxScore());
-        
-        // Manually load answer data to avoid Hibernate orphan issues
+        simplifiedResponse.put("id", attempt.getId());
+        simplifiedResponse.put("quiz", quiz.getId());
+        simplifiedResponse.put("student", principal.getId());
+        simplifiedResponse.put("startTime", attempt.getStartTime());
+        simplifiedResponse.put("endTime", now);
+        simplifiedResponse.put("completed", true);
+        simplifiedResponse.put("score", result.score());
+        simplifiedResponse.put("maxScore", result.maxScore());
+        
+        // Built from the graded results; nothing is read back from the database
         List<Map<String, Object>> simplifiedAnswers = new ArrayList<>();
-        List<QuizAnswer> answerList = quizAnswerRepository.findByAttemptId(savedAttemptWithId.getId());
-            
-        for (QuizAnswer answer : answerList) {
+        for (QuizGradingService.GradedAnswer answer : result.answers()) {
             Map<String, Object> simplifiedAnswer = new HashMap<>();
-            simplifiedAnswer.put("id", answer.getId());
-            simplifiedAnswer.put("question", answer.getQuestion() != null ? answer.getQuestion().getId() : null);
-            simplifiedAnswer.put("selectedOption", answer.getSelectedOption() != null ? answer.getSelectedOption().getId() : null);
-            simplifiedAnswer.put("textAnswer", answer.getTextAnswer());
-            simplifiedAnswer.put("pointsAwarded", answer.getPointsAwarded());
-            simplifiedAnswer.put("graded", answer.isGraded());
+            simplifiedAnswer.put("id", answer.id());
+            simplifiedAnswer.put("question", answer.questionId());
+            simplifiedAnswer.put("selectedOption", answer.selectedOptionId());
+            simplifiedAnswer.put("textAnswer", answer.textAnswer());
+            simplifiedAnswer.put("pointsAwarded", answer.pointsAwarded());
+            simplifiedAnswer.put("graded", answer.graded());
             
             simplifiedAnswers.add(simplifiedAnswer);
         }
@@ -500,15 +483,12 @@ public class QuizController {
     
     @DeleteMapping("/{quizId}")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<String>> deleteQuiz(@PathVariable Long quizId) {
+    public ResponseEntity<ApiResponse<String>> deleteQuiz(@PathVariable Long quizId, @AuthenticationPrincipal AuthenticatedUser principal) {
         Quiz quiz = quizRepository.findById(quizId)
             .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User user = userRepository.getReferenceById(principal.getId());
         
         // Check if user is the creator
         if (!quiz.getCreator().getId().equals(user.getId())) {
@@ -517,23 +497,38 @@ public class QuizController {
         }
         
         quizRepository.delete(quiz);
+        quizGradingService.evictAnswerKey(quizId);
+        quizAttemptRegistry.evict(quizId);
+        quizAvailabilityIndex.invalidate(quiz.getCourse().getId());
         
         return ResponseEntity.ok(
             ApiResponse.success("Quiz deleted successfully")
         );
     }
     
+    @GetMapping("/{quizId}/statistics")
+    @PreAuthorize("hasRole('PROFESSOR')")
+    public ResponseEntity<ApiResponse<QuizStatisticsDto>> getQuizStatistics(@PathVariable Long quizId, @AuthenticationPrincipal AuthenticatedUser principal) {
+        QuizSummaryDto quiz = quizRepository.findSummaryById(quizId)
+            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        
+        // Check if user is the creator
+        if (!quiz.getCreator().equals(principal.getId())) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("You can only view statistics for quizzes you created"));
+        }
+        
+        return ResponseEntity.ok(ApiResponse.success(quizStatisticsService.getStatistics(quizId)));
+    }
+    
     @GetMapping("/{quizId}/submissions")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getQuizSubmissions(@PathVariable Long quizId) {
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getQuizSubmissions(@PathVariable Long quizId, @AuthenticationPrincipal AuthenticatedUser principal) {
         Quiz quiz = quizRepository.findById(quizId)
             .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         
         // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        User professor = userRepository.getReferenceById(principal.getId());
         
         // Check if user is the creator
         if (!quiz.getCreator().getId().equals(professor.getId())) {
@@ -563,25 +558,13 @@ public class QuizController {
     @PreAuthorize("hasRole('PROFESSOR')")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getSubmissionDetails(
             @PathVariable Long quizId,
-            @PathVariable Long submissionId) {
-        
-        Quiz quiz = quizRepository.findById(quizId)
-            .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
-        
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            @PathVariable Long submissionId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
-        // Check if user is the creator
-        if (!quiz.getCreator().getId().equals(professor.getId())) {
-            return ResponseEntity.badRequest()
-                .body(ApiResponse.error("You can only view submissions for quizzes you created"));
-        }
-        
-        QuizAttempt attempt = quizAttemptRepository.findById(submissionId)
-            .orElseThrow(() -> new IllegalArgumentException("Submission not found"));
+        // Attempt, student and quiz in one statement
+        QuizAttempt attempt = quizAttemptRepository.findWithStudentAndQuizById(submissionId)
+            .orElseThrow(() -> new IllegalArgumentException(
+                quizRepository.existsById(quizId) ? "Submission not found" : "Quiz not found"));
         
         // Verify this submission belongs to the specified quiz
         if (!attempt.getQuiz().getId().equals(quizId)) {
@@ -589,6 +572,12 @@ public class QuizController {
                 .body(ApiResponse.error("Submission does not belong to this quiz"));
         }
         
+        // Check if user is the creator
+        if (!attempt.getQuiz().getCreator().getId().equals(principal.getId())) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("You can only view submissions for quizzes you created"));
+        }
+        
         Map<String, Object> submissionDetails = new HashMap<>();
         submissionDetails.put("id", attempt.getId());
         submissionDetails.put("student", mapStudentInfo(attempt.getStudent()));
@@ -597,9 +586,9 @@ public class QuizController {
         submissionDetails.put("score", attempt.getScore());
         submissionDetails.put("maxScore", attempt.getMaxScore());
         
-        // Get detailed answers
+        // Answers, questions, options and selected options in a second statement
         List<Map<String, Object>> answers = new ArrayList<>();
-        List<QuizAnswer> quizAnswers = quizAnswerRepository.findByAttempt(attempt);
+        List<QuizAnswer> quizAnswers = quizAnswerRepository.findWithQuestionsByAttemptId(attempt.getId());
         
         for (QuizAnswer answer : quizAnswers) {
             Map<String, Object> answerDetails = new HashMap<>();
@@ -634,63 +623,41 @@ public class QuizController {
     
     @GetMapping("/my-quizzes")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<ApiResponse<List<Quiz>>> getMyQuizzes() {
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
-        List<Quiz> quizzes = quizRepository.findByCreator(professor);
+    public ResponseEntity<ApiResponse<List<QuizSummaryDto>>> getMyQuizzes(@AuthenticationPrincipal AuthenticatedUser principal) {
+        List<QuizSummaryDto> quizzes = quizRepository.findSummariesByCreatorId(principal.getId());
         return ResponseEntity.ok(ApiResponse.success(quizzes));
     }
 
     @GetMapping("/{quizId}/submissions/download")
     @PreAuthorize("hasRole('PROFESSOR')")
-    public ResponseEntity<Resource> downloadSubmissions(@PathVariable Long quizId) {
-        Quiz quiz = quizRepository.findById(quizId)
+    public ResponseEntity<StreamingResponseBody> downloadSubmissions(
+            @PathVariable Long quizId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        QuizSummaryDto quiz = quizRepository.findSummaryById(quizId)
             .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
         
-        // Get the authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User professor = userRepository.findByUsername(username)
-            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        
         // Check if user is the creator
-        if (!quiz.getCreator().getId().equals(professor.getId())) {
+        if (!quiz.getCreator().equals(principal.getId())) {
             throw new IllegalArgumentException("You can only download submissions for quizzes you created");
         }
         
-        List<QuizAttempt> attempts = quizAttemptRepository.findByQuizAndCompleted(quiz, true);
-        
-        // Create CSV content
-        StringBuilder csvContent = new StringBuilder();
-        csvContent.append("Student ID,Student Name,Email,Submission Date,Score,Max Score,Percentage\n");
-        
-        for (QuizAttempt attempt : attempts) {
-            User student = attempt.getStudent();
-            csvContent.append(String.format("%s,%s,%s,%s,%d,%d,%.2f%%\n",
-                student.getStudentId(),
-                student.getFullName().replace(",", ";"), // Escape commas in names
-                student.getEmail(),
-                attempt.getEndTime(),
-                attempt.getScore(),
-                attempt.getMaxScore(),
-                (attempt.getScore() * 100.0 / attempt.getMaxScore())
-            ));
-        }
-        
-        byte[] csvBytes = csvContent.toString().getBytes();
-        ByteArrayResource resource = new ByteArrayResource(csvBytes);
-        
         String filename = quiz.getTitle().replaceAll("[^a-zA-Z0-9]", "_") + "_submissions.csv";
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
         
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
-            .contentType(MediaType.parseMediaType("text/csv"))
-            .contentLength(csvBytes.length)
-            .body(resource);
+        // Rows are written to the response as they are read; closing the CSV printer
+        // also finishes the gzip stream
+        StreamingResponseBody body = out -> quizSubmissionExportService.writeSubmissionsCsv(
+            quizId, gzip ? new GZIPOutputStream(out, 8192) : out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
     
     private Map<String, Object> mapStudentInfo(User student) {
@@ -0,0 +1,28 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An assignment as shown in listings, projected directly by the listing query. Attached
+ * files and submissions are left out; {@code course} and {@code creator} are IDs, as in the
+ * entity's JSON form.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentSummaryDto {
+
+    private Long id;
+    private String title;
+    private String description;
+    private Long course;
+    private Long creator;
+    private LocalDateTime dueDate;
+    private LocalDateTime createdAt;
+    private Integer maxPoints;
+    private Integer fileCount;
+}
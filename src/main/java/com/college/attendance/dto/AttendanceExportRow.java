@@ -0,0 +1,21 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the course attendance spreadsheet, projected directly by the export query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceExportRow {
+
+    private String studentName;
+    private String studentId;
+    private LocalDateTime timestamp;
+    private boolean verified;
+}
@@ -0,0 +1,20 @@
+package com.college.attendance.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradingDto {
+
+    @NotEmpty(message = "At least one grade is required")
+    @Size(max = 500, message = "At most 500 submissions can be graded at once")
+    private List<@Valid SubmissionGradeDto> grades;
+}
@@ -0,0 +1,29 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk grading request, with one result per requested grade in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkGradingResultDto {
+
+    private int graded;
+    private int failed;
+    private List<ItemResult> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long submissionId;
+        private boolean success;
+        private String error;
+    }
+}
@@ -0,0 +1,21 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a chunked upload. The next chunk must start at {@code receivedBytes} and may
+ * be at most {@code maxChunkBytes} long.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadSessionDto {
+
+    private String uploadId;
+    private String fileName;
+    private long fileSize;
+    private long receivedBytes;
+    private long maxChunkBytes;
+}
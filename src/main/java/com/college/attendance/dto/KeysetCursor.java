@@ -0,0 +1,42 @@
+package com.college.attendance.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by {@code (timestamp, id)}: the key of the last row of the
+ * previous page. Clients only see it as an opaque URL-safe token.
+ */
+public record KeysetCursor(LocalDateTime timestamp, long id) {
+
+    /**
+     * Sorts before every row, so a query "after" it returns the first page.
+     */
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0L);
+
+    public String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@link #START} for a missing cursor.
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode}.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
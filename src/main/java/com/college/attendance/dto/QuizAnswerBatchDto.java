@@ -0,0 +1,18 @@
+package com.college.attendance.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizAnswerBatchDto {
+
+    @NotEmpty(message = "At least one answer is required")
+    private List<@Valid QuizAnswerDto> answers;
+}
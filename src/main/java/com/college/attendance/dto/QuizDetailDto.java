@@ -0,0 +1,28 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A quiz with its questions and options, without attempts. Correct answers are only
+ * filled in for the quiz's professor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizDetailDto {
+
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Integer durationMinutes;
+    private Long course;
+    private Long creator;
+    private List<QuestionDto> questions;
+}
@@ -0,0 +1,49 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Aggregate results of a quiz's completed attempts. Score statistics are in points;
+ * the histogram groups attempts by score as a percentage of their maximum score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizStatisticsDto {
+
+    private Long quizId;
+    private long submissionCount;
+    private Double meanScore;
+    private Double medianScore;
+    private Double standardDeviation;
+    private Integer minScore;
+    private Integer maxScore;
+    private List<HistogramBucket> histogram;
+    private List<QuestionStatistics> questions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HistogramBucket {
+
+        private int fromPercent;
+        private int toPercent;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionStatistics {
+
+        private Long questionId;
+        private String text;
+        private long answerCount;
+        private long correctCount;
+        private Double correctRate;
+    }
+}
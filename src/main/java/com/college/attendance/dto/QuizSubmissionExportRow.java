@@ -0,0 +1,23 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the quiz submissions CSV, projected directly by the export query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSubmissionExportRow {
+
+    private String studentId;
+    private String studentName;
+    private String email;
+    private LocalDateTime submittedAt;
+    private Integer score;
+    private Integer maxScore;
+}
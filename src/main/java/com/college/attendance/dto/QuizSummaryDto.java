@@ -0,0 +1,28 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A quiz as shown in listings, projected directly by the listing queries. Questions,
+ * attempts and answers are left out; {@code course} and {@code creator} are IDs, as in
+ * the entity's JSON form.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizSummaryDto {
+
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Integer durationMinutes;
+    private Long course;
+    private Long creator;
+    private Long questionCount;
+}
@@ -0,0 +1,24 @@
+package com.college.attendance.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionGradeDto {
+
+    @NotNull(message = "Submission ID is required")
+    private Long submissionId;
+
+    @NotNull(message = "Score is required")
+    @Min(value = 0, message = "Score cannot be negative")
+    @Max(value = 100, message = "Score cannot be more than 100")
+    private Integer score;
+
+    private String feedback;
+}
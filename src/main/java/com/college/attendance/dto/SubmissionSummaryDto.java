@@ -0,0 +1,30 @@
+package com.college.attendance.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A submission as shown in listings, projected directly by the listing queries. Notes,
+ * feedback and attached files are left out; {@code student} is an ID, as in the entity's
+ * JSON form.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSummaryDto {
+
+    private Long id;
+    private Long assignmentId;
+    private String assignmentTitle;
+    private Long student;
+    private String studentName;
+    private LocalDateTime submissionDate;
+    private LocalDateTime gradedDate;
+    private Integer score;
+    private boolean graded;
+    private boolean late;
+    private Integer fileCount;
+}
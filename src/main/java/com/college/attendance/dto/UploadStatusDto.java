@@ -0,0 +1,27 @@
+package com.college.attendance.dto;
+
+import com.college.attendance.model.FileInfo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of an asynchronous upload. {@code file.fileUrl} is only set once the upload has
+ * {@link Status#COMPLETED completed}; {@code error} only once it has {@link Status#FAILED failed}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatusDto {
+
+    private String uploadId;
+    private Status status;
+    private FileInfo file;
+    private String error;
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -24,6 +24,12 @@ public class DetailedRequestLoggingFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) 
             throws ServletException, IOException {
+        // File downloads and upload chunks are streamed; caching their bodies would load them into memory
+        if (request.getRequestURI().startsWith("/api/files/") || request.getRequestURI().startsWith("/api/upload/sessions/")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
         // Generate a unique ID for this request
         String requestId = UUID.randomUUID().toString();
         
@@ -1,10 +1,20 @@
 package com.college.attendance.filter;
 
 import com.college.attendance.controller.ApiResponse;
+import com.college.attendance.security.AuthenticatedUser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
-import org.springframework.beans.factory.annotation.Qualifier;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -13,44 +23,72 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Per-client rate limiting. Each (route class, client) pair gets its own token bucket, kept in
+ * the "buckets" cache. The client is the authenticated user when there is one. Otherwise it is
+ * the caller's IP address, which the container resolves from forwarding headers only when they
+ * come from a trusted proxy. Limits are configured per route class with
+ * {@code rate-limit.<class>.per-minute}.
+ */
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Bucket standardRateLimit;
-    private final Bucket authRateLimit;
+    enum RouteClass {
+        AUTH, CHECK_IN, UPLOAD, READ, WRITE
+    }
+
+    private final Cache buckets;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<RouteClass, Integer> limitsPerMinute = new EnumMap<>(RouteClass.class);
 
     public RateLimitingFilter(
-            @Qualifier("standardRateLimit") Bucket standardRateLimit,
-            @Qualifier("authRateLimit") Bucket authRateLimit,
-            ObjectMapper objectMapper) {
-        this.standardRateLimit = standardRateLimit;
-        this.authRateLimit = authRateLimit;
+            CacheManager cacheManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.auth.per-minute:30}") int authPerMinute,
+            @Value("${rate-limit.check-in.per-minute:10}") int checkInPerMinute,
+            @Value("${rate-limit.upload.per-minute:20}") int uploadPerMinute,
+            @Value("${rate-limit.read.per-minute:120}") int readPerMinute,
+            @Value("${rate-limit.write.per-minute:60}") int writePerMinute) {
+        this.buckets = cacheManager.getCache("buckets");
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        limitsPerMinute.put(RouteClass.AUTH, authPerMinute);
+        limitsPerMinute.put(RouteClass.CHECK_IN, checkInPerMinute);
+        limitsPerMinute.put(RouteClass.UPLOAD, uploadPerMinute);
+        limitsPerMinute.put(RouteClass.READ, readPerMinute);
+        limitsPerMinute.put(RouteClass.WRITE, writePerMinute);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
-        String path = request.getRequestURI();
-        Bucket bucketToUse;
-        
-        // Use stricter rate limits for authentication endpoints
-        if (path.startsWith("/api/auth")) {
-            bucketToUse = authRateLimit;
-        } else {
-            bucketToUse = standardRateLimit;
-        }
+        RouteClass route = classify(request);
+        String client = clientKey(request);
+        Bucket bucket = buckets.get(new BucketKey(route, client), () -> newBucket(limitsPerMinute.get(route)));
         
         // Try to consume a token
-        if (bucketToUse.tryConsume(1)) {
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        if (probe.isConsumed()) {
             filterChain.doFilter(request, response);
         } else {
+            meterRegistry.counter("app.ratelimit.rejected",
+                    "route", route.name().toLowerCase(),
+                    "client", client.substring(0, client.indexOf(':'))).increment();
+            logger.debug("Rate limit exceeded for " + client + " on " + route);
+
             // Return a 429 Too Many Requests response
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
             response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
             response.setContentType("application/json");
             
             ApiResponse<?> apiResponse = new ApiResponse<>(
@@ -63,4 +101,46 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
         }
     }
-} 
\ No newline at end of file
+
+    static RouteClass classify(HttpServletRequest request) {
+        // Match on the application path so the same rules apply with or without a context path
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (path.startsWith("/api/auth")) {
+            return RouteClass.AUTH;
+        }
+        if (path.startsWith("/api/attendance/record")) {
+            return RouteClass.CHECK_IN;
+        }
+        if (path.startsWith("/api/upload") && "POST".equals(method)) {
+            // Only starting an upload counts; status polls are reads, and the chunks of a
+            // resumable upload are ordinary writes
+            return RouteClass.UPLOAD;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return RouteClass.READ;
+        }
+        return RouteClass.WRITE;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + user.getId();
+        }
+        // X-Forwarded-For is never read here: any caller can set it. With
+        // server.forward-headers-strategy=native, Tomcat rewrites the remote address from it
+        // only for requests that arrive through a trusted internal proxy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static Bucket newBucket(int perMinute) {
+        return Bucket.builder()
+                .addLimit(Bandwidth.classic(perMinute, Refill.greedy(perMinute, Duration.ofMinutes(1))))
+                .build();
+    }
+
+    private record BucketKey(RouteClass route, String client) {
+    }
+}
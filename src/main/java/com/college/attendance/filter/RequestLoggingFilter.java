@@ -35,8 +35,10 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
-        // Skip actuator endpoints to avoid excessive logging
-        if (request.getRequestURI().startsWith("/actuator")) {
+        // Skip actuator endpoints to avoid excessive logging, and file downloads and upload
+        // chunks so their bodies are streamed rather than buffered in memory
+        if (request.getRequestURI().startsWith("/actuator") || request.getRequestURI().startsWith("/api/files/")
+                || request.getRequestURI().startsWith("/api/upload/sessions/")) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -29,6 +30,10 @@ public class AttendanceRecord {
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
+    // The check-in day in attendance.checkin.zone; one record per user, course and day
+    @Column(name = "check_in_date", nullable = false)
+    private LocalDate checkInDate;
+    
     @Column(nullable = false)
     private boolean verified;
     
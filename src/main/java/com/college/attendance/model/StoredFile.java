@@ -0,0 +1,44 @@
+package com.college.attendance.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A file in local storage. {@code storageName} is its path relative to the upload directory.
+ * Deduplicated uploads carry the SHA-256 {@code contentHash} of the shared blob that holds
+ * their bytes, and are served from it; files without a hash are never shared or collected.
+ */
+@Entity
+@Table(name = "stored_files")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "storage_name", nullable = false, unique = true)
+    private String storageName;
+
+    @Column(name = "original_name")
+    private String originalName;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Builder.Default
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+}
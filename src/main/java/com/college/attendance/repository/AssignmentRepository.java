@@ -1,9 +1,13 @@
 package com.college.attendance.repository;
 
+import com.college.attendance.dto.AssignmentSummaryDto;
 import com.college.attendance.model.Assignment;
 import com.college.attendance.model.Course;
 import com.college.attendance.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -18,4 +22,18 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByCourseAndDueDateAfter(Course course, LocalDateTime now);
     
     List<Assignment> findByCourseAndDueDateBefore(Course course, LocalDateTime now);
-} 
\ No newline at end of file
+
+    /**
+     * The course's assignments ordered by {@code (dueDate, id)}, starting after the given key.
+     */
+    @Query("SELECT new com.college.attendance.dto.AssignmentSummaryDto(" +
+            "a.id, a.title, a.description, a.course.id, a.creator.id, a.dueDate, a.createdAt, a.maxPoints, " +
+            "SIZE(a.files)) FROM Assignment a WHERE a.course.id = :courseId " +
+            "AND (a.dueDate > :afterDate OR (a.dueDate = :afterDate AND a.id > :afterId)) " +
+            "ORDER BY a.dueDate, a.id")
+    List<AssignmentSummaryDto> findSummariesByCourseIdAfter(
+        @Param("courseId") Long courseId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        Limit limit);
+}
@@ -1,24 +1,52 @@
 package com.college.attendance.repository;
 
+import com.college.attendance.dto.SubmissionSummaryDto;
 import com.college.attendance.model.Assignment;
 import com.college.attendance.model.AssignmentSubmission;
 import com.college.attendance.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AssignmentSubmissionRepository extends JpaRepository<AssignmentSubmission, Long> {
-    List<AssignmentSubmission> findByAssignment(Assignment assignment);
-    
-    List<AssignmentSubmission> findByStudent(User student);
-    
     List<AssignmentSubmission> findByAssignmentAndStudent(Assignment assignment, User student);
     
     Optional<AssignmentSubmission> findTopByAssignmentAndStudentOrderBySubmissionDateDesc(
         Assignment assignment, User student);
     
     List<AssignmentSubmission> findByAssignmentAndGraded(Assignment assignment, boolean graded);
-} 
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.college.attendance.dto.SubmissionSummaryDto(" +
+            "s.id, a.id, a.title, st.id, st.fullName, s.submissionDate, s.gradedDate, s.score, s.graded, s.late, " +
+            "SIZE(s.files)) FROM AssignmentSubmission s JOIN s.assignment a JOIN s.student st ";
+
+    String AFTER_CURSOR = "AND (s.submissionDate > :afterDate OR (s.submissionDate = :afterDate AND s.id > :afterId)) " +
+            "ORDER BY s.submissionDate, s.id";
+
+    /**
+     * The assignment's submissions ordered by {@code (submissionDate, id)}, starting after the given key.
+     */
+    @Query(SUMMARY_SELECT + "WHERE a.id = :assignmentId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findSummariesByAssignmentIdAfter(
+        @Param("assignmentId") Long assignmentId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        Limit limit);
+
+    /**
+     * The student's submissions ordered by {@code (submissionDate, id)}, starting after the given key.
+     */
+    @Query(SUMMARY_SELECT + "WHERE st.id = :studentId " + AFTER_CURSOR)
+    List<SubmissionSummaryDto> findSummariesByStudentIdAfter(
+        @Param("studentId") Long studentId,
+        @Param("afterDate") LocalDateTime afterDate,
+        @Param("afterId") Long afterId,
+        Limit limit);
+} 
@@ -1,14 +1,22 @@
 package com.college.attendance.repository;
 
+import com.college.attendance.dto.AttendanceExportRow;
 import com.college.attendance.model.AttendanceRecord;
 import com.college.attendance.model.Course;
 import com.college.attendance.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<AttendanceRecord, Long> {
@@ -27,4 +35,26 @@ public interface AttendanceRepository extends JpaRepository<AttendanceRecord, Lo
             Course course, LocalDateTime start, LocalDateTime end);
 
     List<AttendanceRecord> findByCourse(Course course);
-}
\ No newline at end of file
+
+    boolean existsByCourseId(Long courseId);
+
+    boolean existsByUserIdAndCourseIdAndCheckInDate(Long userId, Long courseId, LocalDate checkInDate);
+
+    /**
+     * Streams the course's attendance export rows with the student joined in, as one
+     * forward-only query. Must be consumed inside a transaction and closed afterwards.
+     */
+    @Query("SELECT new com.college.attendance.dto.AttendanceExportRow(u.fullName, u.studentId, r.timestamp, r.verified) " +
+           "FROM AttendanceRecord r JOIN r.user u WHERE r.course.id = :courseId ORDER BY r.timestamp, r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AttendanceExportRow> streamExportRowsByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Returns {@code [userId, courseId]} pairs for every check-in on {@code day}.
+     */
+    @Query("SELECT r.user.id, r.course.id FROM AttendanceRecord r WHERE r.checkInDate = :day")
+    List<Object[]> findUserAndCourseIdsByCheckInDate(@Param("day") LocalDate day);
+}
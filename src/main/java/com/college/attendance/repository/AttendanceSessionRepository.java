@@ -42,6 +42,15 @@ public interface AttendanceSessionRepository extends JpaRepository<AttendanceSes
      */
     List<AttendanceSession> findByActiveTrueAndExpiresAtBefore(LocalDateTime now);
 
+    /**
+     * Finds all sessions that are still active and have not yet expired.
+     * Used to rebuild the in-memory session index at startup.
+     *
+     * @param now The current time.
+     * @return A list of active, non-expired sessions.
+     */
+    List<AttendanceSession> findByActiveTrueAndExpiresAtAfter(LocalDateTime now);
+
     /**
      * Finds all active attendance sessions created by a specific professor that have not yet expired.
      *
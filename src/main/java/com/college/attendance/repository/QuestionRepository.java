@@ -3,6 +3,8 @@ package com.college.attendance.repository;
 import com.college.attendance.model.Question;
 import com.college.attendance.model.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,10 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     List<Question> findByQuiz(Quiz quiz);
     
     List<Question> findByQuizOrderByOrderAsc(Quiz quiz);
+
+    /**
+     * Loads a quiz's questions with their options in one query.
+     */
+    @Query("SELECT DISTINCT q FROM Question q LEFT JOIN FETCH q.options WHERE q.quiz.id = :quizId")
+    List<Question> findWithOptionsByQuizId(@Param("quizId") Long quizId);
 } 
\ No newline at end of file
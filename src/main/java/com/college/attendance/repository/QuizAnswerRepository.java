@@ -4,6 +4,8 @@ import com.college.attendance.model.Question;
 import com.college.attendance.model.QuizAnswer;
 import com.college.attendance.model.QuizAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,16 @@ public interface QuizAnswerRepository extends JpaRepository<QuizAnswer, Long> {
     List<QuizAnswer> findByAttemptId(Long attemptId);
     
     Optional<QuizAnswer> findByAttemptAndQuestion(QuizAttempt attempt, Question question);
+
+    /**
+     * Loads an attempt's answers with their questions, the questions' options and the
+     * selected options in one statement.
+     */
+    @Query("SELECT DISTINCT a FROM QuizAnswer a " +
+            "JOIN FETCH a.question q " +
+            "LEFT JOIN FETCH q.options " +
+            "LEFT JOIN FETCH a.selectedOption " +
+            "WHERE a.attempt.id = :attemptId " +
+            "ORDER BY a.id")
+    List<QuizAnswer> findWithQuestionsByAttemptId(@Param("attemptId") Long attemptId);
 } 
\ No newline at end of file
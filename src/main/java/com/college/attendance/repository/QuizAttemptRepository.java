@@ -1,13 +1,20 @@
 package com.college.attendance.repository;
 
+import com.college.attendance.dto.QuizSubmissionExportRow;
 import com.college.attendance.model.Quiz;
 import com.college.attendance.model.QuizAttempt;
 import com.college.attendance.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
@@ -22,4 +29,36 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
     List<QuizAttempt> findByQuizAndStudent(Quiz quiz, User student);
     
     Optional<QuizAttempt> findByQuizAndStudentAndCompleted(Quiz quiz, User student, boolean completed);
-}
\ No newline at end of file
+
+    /**
+     * Returns {@code [studentId, attemptId, startTime, completed]} for every attempt at the quiz.
+     */
+    @Query("SELECT a.student.id, a.id, a.startTime, a.completed FROM QuizAttempt a WHERE a.quiz.id = :quizId")
+    List<Object[]> findAttemptStatesByQuizId(@Param("quizId") Long quizId);
+
+    /**
+     * Returns {@code [attemptId, startTime, durationMinutes]} for every attempt still in progress.
+     */
+    @Query("SELECT a.id, a.startTime, a.quiz.durationMinutes FROM QuizAttempt a WHERE a.completed = false")
+    List<Object[]> findOpenAttemptDeadlines();
+
+    /**
+     * Streams the completed attempts of a quiz joined to their students, in submission order.
+     */
+    @Query("SELECT new com.college.attendance.dto.QuizSubmissionExportRow(" +
+            "s.studentId, s.fullName, s.email, a.endTime, a.score, a.maxScore) " +
+            "FROM QuizAttempt a JOIN a.student s " +
+            "WHERE a.quiz.id = :quizId AND a.completed = true " +
+            "ORDER BY a.endTime, a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<QuizSubmissionExportRow> streamSubmissionExportRowsByQuizId(@Param("quizId") Long quizId);
+
+    /**
+     * Loads an attempt together with its student and quiz in one statement.
+     */
+    @Query("SELECT a FROM QuizAttempt a JOIN FETCH a.student JOIN FETCH a.quiz WHERE a.id = :attemptId")
+    Optional<QuizAttempt> findWithStudentAndQuizById(@Param("attemptId") Long attemptId);
+}
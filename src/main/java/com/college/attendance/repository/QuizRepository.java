@@ -3,11 +3,15 @@ package com.college.attendance.repository;
 import com.college.attendance.model.Course;
 import com.college.attendance.model.Quiz;
 import com.college.attendance.model.User;
+import com.college.attendance.dto.QuizSummaryDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
@@ -32,4 +36,25 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
     default List<Quiz> findAvailableQuizzesByCourse(Course course, LocalDateTime currentTime) {
         return findByCourseAndStartDateBeforeAndEndDateAfter(course, currentTime, currentTime);
     }
-} 
\ No newline at end of file
+
+    String SUMMARY_SELECT = "SELECT new com.college.attendance.dto.QuizSummaryDto(" +
+            "q.id, q.title, q.description, q.startDate, q.endDate, q.durationMinutes, q.course.id, q.creator.id, " +
+            "(SELECT COUNT(qs) FROM Question qs WHERE qs.quiz = q)) FROM Quiz q ";
+
+    @Query(SUMMARY_SELECT + "WHERE q.course.id = :courseId ORDER BY q.startDate, q.id")
+    List<QuizSummaryDto> findSummariesByCourseId(@Param("courseId") Long courseId);
+
+    @Query(SUMMARY_SELECT + "WHERE q.creator.id = :creatorId ORDER BY q.startDate, q.id")
+    List<QuizSummaryDto> findSummariesByCreatorId(@Param("creatorId") Long creatorId);
+
+    /**
+     * Summaries of the quizzes that have started and not yet ended, with the same bounds
+     * as {@link #findAvailableQuizzesByCourse}.
+     */
+    @Query(SUMMARY_SELECT + "WHERE q.course.id = :courseId AND q.startDate < :now AND q.endDate > :now " +
+            "ORDER BY q.startDate, q.id")
+    List<QuizSummaryDto> findAvailableSummariesByCourseId(@Param("courseId") Long courseId, @Param("now") LocalDateTime now);
+
+    @Query(SUMMARY_SELECT + "WHERE q.id = :quizId")
+    Optional<QuizSummaryDto> findSummaryById(@Param("quizId") Long quizId);
+}
@@ -0,0 +1,11 @@
+package com.college.attendance.repository;
+
+import com.college.attendance.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+    Optional<StoredFile> findByStorageName(String storageName);
+}
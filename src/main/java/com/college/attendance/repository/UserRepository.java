@@ -2,8 +2,10 @@ package com.college.attendance.repository;
 
 import com.college.attendance.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Optional<User> findByStudentId(String studentId);
+
+    /**
+     * Returns every {@code [userId, courseId]} row of the {@code user_courses} join table.
+     */
+    @Query(value = "SELECT user_id, course_id FROM user_courses", nativeQuery = true)
+    List<Object[]> findAllEnrollments();
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.college.attendance.security;
+
+import com.college.attendance.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of {@link AuthenticatedUser} snapshots keyed by username and JWT token ID,
+ * so an authenticated request costs at most one user lookup until the entry expires.
+ * Callers that change a user's password, role or verification status must call
+ * {@link #invalidate(String)}.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<PrincipalKey, AuthenticatedUser> cache;
+
+    public AuthenticatedPrincipalCache(
+            UserRepository userRepository,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.principal-cache.maximum-size:10000}") long maximumSize) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Returns the snapshot for the token, loading the user on a miss.
+     *
+     * @return empty if no user with this username exists.
+     */
+    public Optional<AuthenticatedUser> get(String username, String tokenId) {
+        return Optional.ofNullable(cache.get(new PrincipalKey(username, tokenId),
+                key -> userRepository.findByUsername(username).map(AuthenticatedUser::from).orElse(null)));
+    }
+
+    /**
+     * Drops every cached snapshot of the user, whichever token it was cached for.
+     */
+    public void invalidate(String username) {
+        cache.asMap().keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    private record PrincipalKey(String username, String tokenId) {
+    }
+}
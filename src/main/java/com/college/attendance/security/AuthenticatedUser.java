@@ -0,0 +1,42 @@
+package com.college.attendance.security;
+
+import com.college.attendance.model.Role;
+import com.college.attendance.model.User;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the authenticated user, set as the principal by {@link JwtRequestFilter}.
+ * Controllers receive it through {@code @AuthenticationPrincipal} instead of looking the user
+ * up by username again.
+ */
+@Value
+public class AuthenticatedUser implements UserDetails {
+
+    Long id;
+    String username;
+    Role role;
+    boolean enabled;
+
+    public static AuthenticatedUser from(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), user.isEmailVerified());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    /**
+     * The snapshot never carries credentials.
+     */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+}
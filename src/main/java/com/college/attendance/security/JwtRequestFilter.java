@@ -1,11 +1,9 @@
 package com.college.attendance.security;
 
-import com.college.attendance.repository.UserRepository;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.JwtException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -15,21 +13,17 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    private final CustomUserDetailsService userDetailsService;
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserRepository userRepository;
+    private final AuthenticatedPrincipalCache principalCache;
 
-    public JwtRequestFilter(
-            CustomUserDetailsService userDetailsService, 
-            JwtTokenUtil jwtTokenUtil,
-            UserRepository userRepository) {
-        this.userDetailsService = userDetailsService;
+    public JwtRequestFilter(JwtTokenUtil jwtTokenUtil, AuthenticatedPrincipalCache principalCache) {
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -38,19 +32,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        ValidatedToken token = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.extractUsername(jwtToken);
+                // Signature and expiry are verified here, once per request
+                token = jwtTokenUtil.parseAndValidate(jwtToken);
             } catch (IllegalArgumentException e) {
                 logger.warn("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.warn("JWT Token has expired");
-            } catch (MalformedJwtException e) {
+            } catch (JwtException e) {
                 logger.warn("Invalid JWT Token");
             }
         } else {
@@ -58,17 +52,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // First check if the user exists in the database - this is critical for security
-            if (!userRepository.findByUsername(username).isPresent()) {
-                logger.warn("User not found in database: " + username);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // First check if the user exists - this is critical for security. The snapshot is
+            // cached per token, so this only reaches the database on the token's first request.
+            Optional<AuthenticatedUser> principal = principalCache.get(token.username(), token.tokenId());
+            if (principal.isEmpty()) {
+                logger.warn("User not found in database: " + token.username());
                 // Don't proceed with authentication if user doesn't exist
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             } else {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                AuthenticatedUser userDetails = principal.get();
     
                 // If token is valid configure Spring Security to manually set authentication
-                if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+                if (token.username().equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
                         new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
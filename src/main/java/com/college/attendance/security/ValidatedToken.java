@@ -0,0 +1,24 @@
+package com.college.attendance.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked by
+ * {@link JwtTokenUtil#parseAndValidate(String)}.
+ */
+public record ValidatedToken(String username, String tokenId, String role, Date expiration) {
+
+    static ValidatedToken from(Claims claims) {
+        return new ValidatedToken(
+                claims.getSubject(),
+                claims.get("tokenId", String.class),
+                claims.get("role", String.class),
+                claims.getExpiration());
+    }
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
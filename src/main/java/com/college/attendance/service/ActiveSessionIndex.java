@@ -0,0 +1,122 @@
+package com.college.attendance.service;
+
+import com.college.attendance.model.AttendanceSession;
+import com.college.attendance.repository.AttendanceSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process index of active attendance sessions keyed by (courseId, verificationCode).
+ * <p>
+ * Check-ins resolve the submitted code against this index instead of querying
+ * {@code attendance_sessions} on every request. The index is rebuilt from the database
+ * when the application starts, populated whenever a session is created, and entries are
+ * dropped as soon as they are observed past their {@code expiresAt}.
+ * <p>
+ * The index assumes a single application instance owns session creation; sessions
+ * created by another instance are only picked up on the next restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveSessionIndex {
+
+    private final AttendanceSessionRepository attendanceSessionRepository;
+
+    private final ConcurrentMap<SessionKey, IndexedSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Reloads every active, non-expired session from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<AttendanceSession> activeSessions = attendanceSessionRepository.findByActiveTrueAndExpiresAtAfter(now);
+        sessions.clear();
+        for (AttendanceSession session : activeSessions) {
+            put(session.getCourse().getId(), session.getVerificationCode(), session.getId(), session.getExpiresAt());
+        }
+        log.info("Active session index rebuilt with {} session(s).", sessions.size());
+    }
+
+    /**
+     * Adds a freshly saved session to the index. When called inside a transaction the
+     * entry only becomes visible once the transaction commits.
+     */
+    public void register(AttendanceSession session) {
+        Long courseId = session.getCourse().getId();
+        String code = session.getVerificationCode();
+        Long sessionId = session.getId();
+        LocalDateTime expiresAt = session.getExpiresAt();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(courseId, code, sessionId, expiresAt);
+                }
+            });
+        } else {
+            put(courseId, code, sessionId, expiresAt);
+        }
+    }
+
+    /**
+     * Looks up the session that accepts {@code verificationCode} for the course at {@code now}.
+     *
+     * @return the session ID, or empty if the code is unknown or has expired.
+     */
+    public Optional<Long> findSessionId(Long courseId, String verificationCode, LocalDateTime now) {
+        if (courseId == null || verificationCode == null) {
+            return Optional.empty();
+        }
+        SessionKey key = new SessionKey(courseId, verificationCode);
+        IndexedSession session = sessions.get(key);
+        if (session == null) {
+            return Optional.empty();
+        }
+        if (!session.expiresAt().isAfter(now)) {
+            sessions.remove(key, session);
+            return Optional.empty();
+        }
+        return Optional.of(session.sessionId());
+    }
+
+    /**
+     * Removes every entry that has expired at {@code now}.
+     *
+     * @return the number of entries removed.
+     */
+    public int evictExpired(LocalDateTime now) {
+        int before = sessions.size();
+        sessions.values().removeIf(session -> !session.expiresAt().isAfter(now));
+        return before - sessions.size();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    void put(Long courseId, String verificationCode, Long sessionId, LocalDateTime expiresAt) {
+        sessions.put(new SessionKey(courseId, verificationCode), new IndexedSession(sessionId, expiresAt));
+    }
+
+    private record SessionKey(long courseId, String verificationCode) {
+    }
+
+    private record IndexedSession(Long sessionId, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.BulkGradingResultDto;
+import com.college.attendance.dto.BulkGradingResultDto.ItemResult;
+import com.college.attendance.dto.SubmissionGradeDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grades many assignment submissions in one request.
+ * <p>
+ * The submissions' assignments and creators are read with one query, so ownership is
+ * checked once per assignment rather than once per submission, and all accepted grades are
+ * written with one JDBC batch in a single transaction. Grades that cannot be applied are
+ * reported individually instead of failing the whole request.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssignmentGradingService {
+
+    private static final String OWNERSHIP_SQL =
+            "SELECT s.id, s.assignment_id, a.creator_id FROM assignment_submissions s " +
+            "JOIN assignments a ON a.id = s.assignment_id WHERE s.id = ANY (?)";
+
+    private static final String GRADE_SQL =
+            "UPDATE assignment_submissions SET score = ?, feedback = ?, graded = TRUE, graded_date = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public BulkGradingResultDto gradeSubmissions(Long professorId, List<SubmissionGradeDto> grades) {
+        Set<Long> submissionIds = new LinkedHashSet<>();
+        for (SubmissionGradeDto grade : grades) {
+            submissionIds.add(grade.getSubmissionId());
+        }
+
+        Map<Long, Long> assignmentBySubmission = new HashMap<>();
+        Map<Long, Boolean> ownedAssignments = new HashMap<>();
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(OWNERSHIP_SQL);
+                    Array ids = connection.createArrayOf("bigint", submissionIds.toArray());
+                    ps.setArray(1, ids);
+                    return ps;
+                },
+                rs -> {
+                    long assignmentId = rs.getLong(2);
+                    assignmentBySubmission.put(rs.getLong(1), assignmentId);
+                    ownedAssignments.putIfAbsent(assignmentId, professorId.equals(rs.getLong(3)));
+                });
+
+        ItemResult[] results = new ItemResult[grades.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < grades.size(); i++) {
+            Long submissionId = grades.get(i).getSubmissionId();
+            Long assignmentId = assignmentBySubmission.get(submissionId);
+            if (assignmentId == null) {
+                results[i] = failure(submissionId, "Submission not found");
+            } else if (!ownedAssignments.get(assignmentId)) {
+                results[i] = failure(submissionId, "You can only grade submissions for assignments you created");
+            } else if (!seen.add(submissionId)) {
+                results[i] = failure(submissionId, "Submission is listed more than once");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            Timestamp gradedDate = Timestamp.valueOf(LocalDateTime.now());
+            int[] counts = jdbcTemplate.batchUpdate(GRADE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    SubmissionGradeDto grade = grades.get(accepted.get(i));
+                    ps.setInt(1, grade.getScore());
+                    ps.setString(2, grade.getFeedback());
+                    ps.setTimestamp(3, gradedDate);
+                    ps.setLong(4, grade.getSubmissionId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return accepted.size();
+                }
+            });
+            for (int i = 0; i < counts.length; i++) {
+                int index = accepted.get(i);
+                Long submissionId = grades.get(index).getSubmissionId();
+                // Zero rows means the submission was deleted after the ownership check
+                results[index] = counts[i] == 0
+                        ? failure(submissionId, "Submission not found")
+                        : new ItemResult(submissionId, true, null);
+            }
+        }
+
+        int graded = 0;
+        for (ItemResult result : results) {
+            if (result.isSuccess()) {
+                graded++;
+            }
+        }
+        return new BulkGradingResultDto(graded, results.length - graded, List.of(results));
+    }
+
+    private static ItemResult failure(Long submissionId, String error) {
+        return new ItemResult(submissionId, false, error);
+    }
+}
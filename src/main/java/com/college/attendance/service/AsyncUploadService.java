@@ -0,0 +1,234 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.UploadStatusDto;
+import com.college.attendance.dto.UploadStatusDto.Status;
+import com.college.attendance.exception.ResourceNotFoundException;
+import com.college.attendance.model.FileInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts uploads without holding a request thread for the transfer to storage.
+ * <p>
+ * The multipart body is moved to a spool directory on local disk (never into the heap),
+ * a pending handle is returned at once, and a bounded pool of {@code workers} threads
+ * hands spooled files to the {@link StorageBackend}. When all workers are busy and
+ * {@code queue-capacity} uploads are waiting, new uploads are rejected rather than queued
+ * without limit. Upload states live in memory for {@code retention-minutes}, which assumes
+ * a single application instance.
+ */
+@Service
+@Slf4j
+public class AsyncUploadService {
+
+    private final StorageBackend storageBackend;
+    private final Path spoolDir;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, PendingUpload> uploads;
+
+    public AsyncUploadService(
+            StorageBackend storageBackend,
+            @Value("${upload.async.spool-dir:./data/upload-spool}") String spoolDir,
+            @Value("${upload.async.workers:8}") int workers,
+            @Value("${upload.async.queue-capacity:200}") int queueCapacity,
+            @Value("${upload.async.retention-minutes:60}") long retentionMinutes) {
+        this.storageBackend = storageBackend;
+        this.spoolDir = Paths.get(spoolDir);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.uploads = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(spoolDir);
+        // Files left by a previous run have no upload state any more
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} upload(s) still pending at shutdown", executor.getQueue().size() + executor.getActiveCount());
+        }
+    }
+
+    /**
+     * Spools the file and queues it for storage.
+     *
+     * @return the pending upload, whose {@code file} has no URL yet.
+     * @throws RejectedExecutionException if the upload queue is full.
+     */
+    public UploadStatusDto submit(MultipartFile file, Long ownerId) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Path spooled = spoolDir.resolve(uploadId);
+        // Moves (or streams) the container's temporary part file; nothing is buffered in memory
+        file.transferTo(spooled);
+
+        FileInfo fileInfo = new FileInfo(file.getOriginalFilename(), null, file.getContentType(),
+                file.getSize(), LocalDateTime.now());
+        try {
+            return enqueue(uploadId, spooled, fileInfo, ownerId);
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+    }
+
+    /**
+     * Queues a file that is already on local disk, such as an assembled chunked upload. The
+     * file is moved into the spool; if the queue is full it is left where it was.
+     *
+     * @return the pending upload, whose {@code file} has no URL yet.
+     * @throws RejectedExecutionException if the upload queue is full.
+     */
+    public UploadStatusDto submit(Path file, String fileName, String contentType, Long ownerId) throws IOException {
+        String uploadId = UUID.randomUUID().toString();
+        Path spooled = spoolDir.resolve(uploadId);
+        Files.move(file, spooled);
+
+        FileInfo fileInfo = new FileInfo(fileName, null, contentType, Files.size(spooled), LocalDateTime.now());
+        try {
+            return enqueue(uploadId, spooled, fileInfo, ownerId);
+        } catch (RejectedExecutionException e) {
+            Files.move(spooled, file);
+            throw e;
+        }
+    }
+
+    private UploadStatusDto enqueue(String uploadId, Path spooled, FileInfo fileInfo, Long ownerId) {
+        PendingUpload upload = new PendingUpload(uploadId, ownerId, fileInfo);
+        uploads.put(uploadId, upload);
+        try {
+            executor.execute(() -> transfer(upload, spooled));
+        } catch (RejectedExecutionException e) {
+            uploads.invalidate(uploadId);
+            throw e;
+        }
+        return upload.toDto();
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the upload is unknown, expired or belongs to someone else.
+     */
+    public UploadStatusDto getStatus(String uploadId, Long ownerId) {
+        return find(uploadId, ownerId).toDto();
+    }
+
+    /**
+     * Completes with the upload's state as soon as it is no longer pending, or with the
+     * pending state once {@code timeout} has passed.
+     *
+     * @throws ResourceNotFoundException if the upload is unknown, expired or belongs to someone else.
+     */
+    public CompletableFuture<UploadStatusDto> awaitStatus(String uploadId, Long ownerId, Duration timeout) {
+        PendingUpload upload = find(uploadId, ownerId);
+        // Time out a copy so the shared future is only ever completed by the transfer
+        return upload.done.copy()
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> upload.toDto());
+    }
+
+    private PendingUpload find(String uploadId, Long ownerId) {
+        PendingUpload upload = uploads.getIfPresent(uploadId);
+        if (upload == null || !upload.ownerId.equals(ownerId)) {
+            throw new ResourceNotFoundException("Upload not found");
+        }
+        return upload;
+    }
+
+    private void transfer(PendingUpload upload, Path spooled) {
+        FileInfo fileInfo = upload.fileInfo;
+        String url = null;
+        String error = null;
+        try {
+            url = storageBackend.store(spooled, fileInfo.getFileName(), fileInfo.getContentType());
+            log.info("Upload {} stored: {} -> {}", upload.uploadId, fileInfo.getFileName(), url);
+        } catch (Exception e) {
+            log.error("Upload {} of '{}' failed: {}", upload.uploadId, fileInfo.getFileName(), e.getMessage(), e);
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+        // Release the spool space before anyone waiting on the upload is told it is done
+        try {
+            Files.deleteIfExists(spooled);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}: {}", spooled, e.getMessage());
+        }
+        if (error == null) {
+            upload.complete(url);
+        } else {
+            upload.fail(error);
+        }
+    }
+
+    private static final class PendingUpload {
+
+        private final String uploadId;
+        private final Long ownerId;
+        private final FileInfo fileInfo;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private volatile Status status = Status.PENDING;
+        private volatile String fileUrl;
+        private volatile String error;
+
+        PendingUpload(String uploadId, Long ownerId, FileInfo fileInfo) {
+            this.uploadId = uploadId;
+            this.ownerId = ownerId;
+            this.fileInfo = fileInfo;
+        }
+
+        void complete(String url) {
+            fileUrl = url;
+            status = Status.COMPLETED;
+            done.complete(null);
+        }
+
+        void fail(String message) {
+            error = message;
+            status = Status.FAILED;
+            done.complete(null);
+        }
+
+        UploadStatusDto toDto() {
+            FileInfo file = new FileInfo(fileInfo.getFileName(), fileUrl, fileInfo.getContentType(),
+                    fileInfo.getFileSize(), fileInfo.getUploadedAt());
+            return new UploadStatusDto(uploadId, status, file, error);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.college.attendance.service;
+
+import com.college.attendance.repository.AttendanceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers "has this student already checked in to this course today?" without a database read.
+ * <p>
+ * Each student is given a dense ordinal the first time they are seen, and each (course, day)
+ * keeps a bitset indexed by that ordinal. The ledger is warmed from today's
+ * {@code attendance_records} at startup and older days are dropped at midnight in the
+ * configured {@code attendance.checkin.zone}. {@link #today()} is the single source of the
+ * check-in day: it is stored as {@code check_in_date}, whose unique (user, course, day) index
+ * on {@code attendance_records} remains the final guard.
+ */
+@Component
+@Slf4j
+public class AttendanceCheckInLedger {
+
+    private final AttendanceRepository attendanceRepository;
+    private final ZoneId zone;
+
+    private final ConcurrentMap<Long, Integer> studentOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final ConcurrentMap<CourseDay, DayBitmap> checkIns = new ConcurrentHashMap<>();
+
+    public AttendanceCheckInLedger(
+            AttendanceRepository attendanceRepository,
+            @Value("${attendance.checkin.zone:}") String zone) {
+        this.attendanceRepository = attendanceRepository;
+        this.zone = StringUtils.hasText(zone) ? ZoneId.of(zone) : ZoneId.systemDefault();
+    }
+
+    /**
+     * Loads today's check-ins from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDate today = today();
+        List<Object[]> pairs = attendanceRepository.findUserAndCourseIdsByCheckInDate(today);
+        for (Object[] pair : pairs) {
+            tryMark((Long) pair[0], (Long) pair[1], today);
+        }
+        log.info("Check-in ledger warmed with {} record(s) for {}.", pairs.size(), today);
+    }
+
+    /**
+     * Drops every day before yesterday; yesterday is kept so late requests straddling
+     * midnight still see their own day.
+     */
+    @Scheduled(cron = "0 0 0 * * *", zone = "${attendance.checkin.zone:}")
+    public void rotate() {
+        LocalDate oldestKept = today().minusDays(1);
+        checkIns.keySet().removeIf(key -> key.day().isBefore(oldestKept));
+    }
+
+    /**
+     * The current check-in day in {@code attendance.checkin.zone}.
+     */
+    public LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    public boolean isCheckedIn(Long userId, Long courseId, LocalDate day) {
+        Integer ordinal = studentOrdinals.get(userId);
+        if (ordinal == null) {
+            return false;
+        }
+        DayBitmap bitmap = checkIns.get(new CourseDay(courseId, day));
+        return bitmap != null && bitmap.get(ordinal);
+    }
+
+    /**
+     * Records a check-in.
+     *
+     * @return {@code true} if this is the first check-in for the student, course and day.
+     */
+    public boolean tryMark(Long userId, Long courseId, LocalDate day) {
+        int ordinal = ordinalOf(userId);
+        return checkIns.computeIfAbsent(new CourseDay(courseId, day), key -> new DayBitmap()).setIfAbsent(ordinal);
+    }
+
+    /**
+     * Reverts {@link #tryMark} when the record could not be persisted.
+     */
+    public void unmark(Long userId, Long courseId, LocalDate day) {
+        Integer ordinal = studentOrdinals.get(userId);
+        DayBitmap bitmap = checkIns.get(new CourseDay(courseId, day));
+        if (ordinal != null && bitmap != null) {
+            bitmap.clear(ordinal);
+        }
+    }
+
+    private int ordinalOf(Long userId) {
+        return studentOrdinals.computeIfAbsent(userId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    private record CourseDay(Long courseId, LocalDate day) {
+    }
+
+    private static final class DayBitmap {
+
+        private final BitSet bits = new BitSet();
+
+        synchronized boolean get(int ordinal) {
+            return bits.get(ordinal);
+        }
+
+        synchronized boolean setIfAbsent(int ordinal) {
+            if (bits.get(ordinal)) {
+                return false;
+            }
+            bits.set(ordinal);
+            return true;
+        }
+
+        synchronized void clear(int ordinal) {
+            bits.clear(ordinal);
+        }
+    }
+}
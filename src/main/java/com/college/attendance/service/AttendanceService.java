@@ -4,6 +4,8 @@ import com.college.attendance.dto.AttendanceRecordDto;
 import com.college.attendance.dto.AttendanceResponseDto;
 import com.college.attendance.model.User;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -33,10 +35,19 @@ public interface AttendanceService {
     List<com.college.attendance.dto.UserDto> getAttendeesForCourseOnDate(Long courseId, LocalDate date);
 
     /**
-     * Generates a spreadsheet (e.g., CSV) containing the full attendance history for a course.
+     * Checks whether a course has any attendance records to export.
      *
      * @param courseId The ID of the course.
-     * @return A byte array representing the spreadsheet file.
+     * @return true if the spreadsheet would contain at least one row.
      */
-    byte[] getCourseAttendanceSpreadsheet(Long courseId);
+    boolean hasAttendanceRecords(Long courseId);
+
+    /**
+     * Writes a CSV spreadsheet containing the full attendance history for a course.
+     * Rows are streamed from the database, so memory use does not grow with the course size.
+     *
+     * @param courseId The ID of the course.
+     * @param out The stream to write the CSV to.
+     */
+    void writeCourseAttendanceSpreadsheet(Long courseId, OutputStream out) throws IOException;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.college.attendance.service;
 
+import com.college.attendance.dto.AttendanceExportRow;
 import com.college.attendance.dto.AttendanceRecordDto;
 import com.college.attendance.dto.AttendanceResponseDto;
 import com.college.attendance.dto.UserDto;
@@ -11,11 +12,14 @@ import com.college.attendance.repository.AttendanceRepository;
 import com.college.attendance.repository.CourseRepository;
 import com.college.attendance.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream; // Added import
+import java.io.BufferedWriter;
 import java.io.IOException; // Added import
+import java.io.OutputStream;
 import java.io.OutputStreamWriter; // Added import
 import java.io.Writer; // Added import
 import java.nio.charset.StandardCharsets; // Added import
@@ -23,9 +27,13 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter; // Added import
 import java.time.LocalDateTime;
 import java.time.ZoneId; // Added import
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.csv.CSVFormat; // Added import
 import org.apache.commons.csv.CSVPrinter; // Added import
 
@@ -36,10 +44,18 @@ import lombok.extern.slf4j.Slf4j; // Added import
 @RequiredArgsConstructor
 public class AttendanceServiceImpl implements AttendanceService {
 
+    private static final ZoneId STORED_ZONE = ZoneOffset.UTC;
+    private static final ZoneId EXPORT_ZONE = ZoneId.of("Africa/Cairo");
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter EXPORT_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
     private final AttendanceRepository attendanceRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final AttendanceSessionService attendanceSessionService; // Added for code verification
+    private final ObjectProvider<AttendanceWriteBehindQueue> writeBehindQueue; // Present only when write-behind is enabled
+    private final AttendanceCheckInLedger checkInLedger;
+    private final EnrollmentMembershipService enrollmentMembership;
 
     @Override
     public AttendanceResponseDto recordAttendance(User user, AttendanceRecordDto attendanceDto) {
@@ -48,21 +64,17 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
 
         // Verify the user is enrolled in this course
-        if (user.getCourses() == null || !user.getCourses().contains(course)) {
+        if (!enrollmentMembership.isEnrolled(user.getId(), course.getId())) {
             throw new IllegalStateException("User is not enrolled in this course");
         }
 
         // Schedule check removed as per new requirements
         LocalDateTime now = LocalDateTime.now();
 
-        // Check if the student already has attendance for this course today
-        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
-        Optional<AttendanceRecord> existingRecord = attendanceRepository
-                .findByUserAndCourseAndTimestampBetween(user, course, startOfDay, endOfDay);
-
-        if (existingRecord.isPresent()) {
+        // Check if the student already has attendance for this course today; the day is
+        // the ledger's, whatever the server's time zone
+        LocalDate today = checkInLedger.today();
+        if (checkInLedger.isCheckedIn(user.getId(), course.getId(), today)) {
             throw new IllegalStateException("Attendance already recorded for this course today");
         }
 
@@ -82,12 +94,33 @@ public class AttendanceServiceImpl implements AttendanceService {
         record.setUser(user);
         record.setCourse(course);
         record.setTimestamp(now);
+        record.setCheckInDate(today);
         record.setVerified(verified); // Set based on code verification result
 
-        AttendanceRecord savedRecord = attendanceRepository.save(record);
+        // Claim today's slot; of two concurrent check-ins only one gets past this point
+        if (!checkInLedger.tryMark(user.getId(), course.getId(), today)) {
+            throw new IllegalStateException("Attendance already recorded for this course today");
+        }
 
-        // Convert to DTO and return
-        return convertToDto(savedRecord);
+        try {
+            // In write-behind mode the record is journaled and queued; it is inserted by the next batch flush
+            AttendanceWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+            if (queue != null) {
+                queue.accept(user.getId(), course.getId(), now, today, verified);
+                return convertToDto(record);
+            }
+
+            AttendanceRecord savedRecord = attendanceRepository.save(record);
+
+            // Convert to DTO and return
+            return convertToDto(savedRecord);
+        } catch (DataIntegrityViolationException e) {
+            // The unique (user, course, day) index caught a record the ledger did not know about
+            throw new IllegalStateException("Attendance already recorded for this course today");
+        } catch (RuntimeException e) {
+            checkInLedger.unmark(user.getId(), course.getId(), today);
+            throw e;
+        }
     }
 
     @Override
@@ -145,12 +178,8 @@ public class AttendanceServiceImpl implements AttendanceService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found"));
 
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1).minusSeconds(1);
-
-        return attendanceRepository
-                .findByUserAndCourseAndTimestampBetween(user, course, startOfDay, endOfDay)
-                .isPresent();
+        return attendanceRepository.existsByUserIdAndCourseIdAndCheckInDate(
+                user.getId(), course.getId(), checkInLedger.today());
     }
 
     @Override
@@ -165,13 +194,14 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
 
         // Check if already enrolled
-        if (user.getCourses().stream().anyMatch(c -> c.getId().equals(courseId))) {
+        if (enrollmentMembership.isEnrolled(user.getId(), courseId)) {
             return "Already enrolled in " + course.getCourseCode();
         }
 
         // Add course to user and save
         user.getCourses().add(course);
         userRepository.save(user);
+        enrollmentMembership.enroll(user.getId(), courseId);
 
         return "Successfully enrolled in " + course.getCourseCode();
     }
@@ -219,45 +249,41 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public byte[] getCourseAttendanceSpreadsheet(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
-
-        List<AttendanceRecord> attendanceRecords = attendanceRepository.findByCourse(course);
-        if (attendanceRecords.isEmpty()) {
-            // Return empty byte array instead of throwing exception, controller handles 204
-            return new byte[0];
+    public boolean hasAttendanceRecords(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with ID: " + courseId);
         }
+        return attendanceRepository.existsByCourseId(courseId);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void writeCourseAttendanceSpreadsheet(Long courseId, OutputStream out) throws IOException {
         // Use Apache Commons CSV
         String[] headers = {"Student Name", "Student ID", "Date", "Time", "Verified"};
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_LOCAL_DATE;
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm").withZone(ZoneId.of("Africa/Cairo"));
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         // Ensure UTF-8 encoding for broader compatibility
-        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<AttendanceExportRow> rows = attendanceRepository.streamExportRowsByCourseId(courseId);
              CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(headers))) {
 
-            for (AttendanceRecord record : attendanceRecords) {
+            Iterator<AttendanceExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                AttendanceExportRow row = iterator.next();
                 // Convert timestamp to Africa/Cairo zone
-                var zoned = record.getTimestamp().atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.of("Africa/Cairo"));
+                ZonedDateTime zoned = row.getTimestamp().atZone(STORED_ZONE).withZoneSameInstant(EXPORT_ZONE);
                 csvPrinter.printRecord(
-                        record.getUser().getFullName(),
-                        record.getUser().getStudentId() != null ? record.getUser().getStudentId() : "N/A",
-                        zoned.toLocalDate().format(dateFormatter),
-                        zoned.toLocalTime().format(timeFormatter),
-                        record.isVerified() ? "Yes" : "No"
+                        row.getStudentName(),
+                        row.getStudentId() != null ? row.getStudentId() : "N/A",
+                        zoned.toLocalDate().format(EXPORT_DATE_FORMAT),
+                        zoned.toLocalTime().format(EXPORT_TIME_FORMAT),
+                        row.isVerified() ? "Yes" : "No"
                 );
             }
             csvPrinter.flush(); // Ensure all data is written
-            return out.toByteArray();
-
         } catch (IOException e) {
-            // Log the error and rethrow as a runtime exception or return empty/error indicator
             log.error("Error generating CSV for course {}: {}", courseId, e.getMessage(), e);
-            throw new RuntimeException("Failed to generate attendance spreadsheet", e);
+            throw e;
         }
     }
 }
\ No newline at end of file
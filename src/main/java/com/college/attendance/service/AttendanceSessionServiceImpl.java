@@ -33,6 +33,8 @@ public class AttendanceSessionServiceImpl implements AttendanceSessionService {
     private final UserRepository userRepository;
     private final AttendanceRepository attendanceRepository;
     private final CourseAttendanceResetRepository courseAttendanceResetRepository;
+    private final ActiveSessionIndex activeSessionIndex;
+    private final EnrollmentMembershipService enrollmentMembership;
 
     private static final Random RANDOM = new SecureRandom();
     private static final int CODE_LENGTH = 6;
@@ -47,7 +49,7 @@ public class AttendanceSessionServiceImpl implements AttendanceSessionService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with ID: " + courseId));
 
-        if (professor.getCourses() == null || professor.getCourses().stream().noneMatch(c -> c.getId().equals(courseId))) {
+        if (!enrollmentMembership.isEnrolled(professor.getId(), courseId)) {
             throw new SecurityException("Professor is not associated with this course.");
         }
 
@@ -78,6 +80,7 @@ public class AttendanceSessionServiceImpl implements AttendanceSessionService {
         session.setActive(true);
 
         AttendanceSession savedSession = attendanceSessionRepository.save(session);
+        activeSessionIndex.register(savedSession);
         log.info("Created attendance session ID {} for course {} by professor {}. Code: {}, Expires: {}",
                 savedSession.getId(), course.getCourseCode(), professor.getUsername(), verificationCode, expiresAt);
 
@@ -86,14 +89,16 @@ public class AttendanceSessionServiceImpl implements AttendanceSessionService {
 
     @Override
     public Optional<AttendanceSession> findValidSession(Course course, String verificationCode, LocalDateTime now) {
-        return attendanceSessionRepository.findByCourseAndVerificationCodeAndActiveTrueAndExpiresAtAfter(
-                course, verificationCode, now);
+        // Resolved from the in-memory index; the returned reference is not loaded unless accessed
+        return activeSessionIndex.findSessionId(course.getId(), verificationCode, now)
+                .map(attendanceSessionRepository::getReferenceById);
     }
 
     @Override
     @Transactional
     public int deactivateExpiredSessions() {
         LocalDateTime now = LocalDateTime.now();
+        activeSessionIndex.evictExpired(now);
         List<AttendanceSession> expiredSessions = attendanceSessionRepository.findByActiveTrueAndExpiresAtBefore(now);
         if (!expiredSessions.isEmpty()) {
             log.info("Found {} expired attendance sessions to deactivate.", expiredSessions.size());
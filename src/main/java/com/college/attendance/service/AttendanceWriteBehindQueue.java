@@ -0,0 +1,352 @@
+package com.college.attendance.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind pipeline for attendance check-ins.
+ * <p>
+ * Accepted records are appended to a local journal and queued in memory; a single worker
+ * thread inserts them with JDBC batches of up to {@code batch-size} rows, or whatever has
+ * accumulated after {@code flush-interval-ms}. The journal is replayed on startup and is
+ * truncated once everything queued is in the database. With {@code sync-journal} each record
+ * is forced to disk before it is acknowledged, so it survives an operating system crash;
+ * without it, only a crash of the application itself.
+ * <p>
+ * At most {@code queue-capacity} records wait in memory; beyond that check-ins are refused
+ * until the worker catches up. A batch that still fails after {@code max-attempts} is written
+ * row by row, and rows the database rejects outright (a deleted user, say) are moved to the
+ * {@code .failed} file next to the journal instead of blocking the records behind them.
+ * Rows that fail because the database is unreachable are retried until it is back.
+ * <p>
+ * Every insert is guarded by a NOT EXISTS check on (user, course, check-in day) and the
+ * matching unique index, so journal replays cannot create a second record for the same day.
+ */
+@Component
+@ConditionalOnProperty(name = "attendance.checkin.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class AttendanceWriteBehindQueue {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO attendance_records (user_id, course_id, timestamp, check_in_date, verified) " +
+            "SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM attendance_records WHERE user_id = ? AND course_id = ? " +
+            "AND check_in_date = ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final boolean syncJournal;
+    private final Path journalPath;
+    private final Path failedPath;
+
+    private final BlockingQueue<PendingRecord> queue;
+    private final Object journalLock = new Object();
+    // Records the worker had taken when it was interrupted; flushed by stop() after join()
+    private final List<PendingRecord> unfinished = new ArrayList<>();
+
+    private final Timer flushTimer;
+    private final Counter flushedRecords;
+    private final Counter failedRecords;
+
+    private FileChannel journal;
+    private Thread worker;
+    private volatile boolean running;
+
+    public AttendanceWriteBehindQueue(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${attendance.checkin.write-behind.batch-size:100}") int batchSize,
+            @Value("${attendance.checkin.write-behind.flush-interval-ms:250}") long flushIntervalMs,
+            @Value("${attendance.checkin.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${attendance.checkin.write-behind.max-attempts:5}") int maxAttempts,
+            @Value("${attendance.checkin.write-behind.sync-journal:true}") boolean syncJournal,
+            @Value("${attendance.checkin.write-behind.journal:./data/attendance-write-behind.journal}") String journalPath) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.syncJournal = syncJournal;
+        this.journalPath = Paths.get(journalPath);
+        this.failedPath = Paths.get(journalPath + ".failed");
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("app.attendance.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Attendance records accepted but not yet written to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("app.attendance.writebehind.flush.duration")
+                .description("Time taken to write one batch of attendance records")
+                .register(meterRegistry);
+        this.flushedRecords = Counter.builder("app.attendance.writebehind.flushed")
+                .description("Attendance records written by the write-behind pipeline")
+                .register(meterRegistry);
+        this.failedRecords = Counter.builder("app.attendance.writebehind.failed")
+                .description("Attendance records the database rejected, set aside in the failed file")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (journalPath.getParent() != null) {
+            Files.createDirectories(journalPath.getParent());
+        }
+        replayJournal();
+        journal = openJournal();
+
+        running = true;
+        worker = new Thread(this::runWorker, "attendance-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Attendance write-behind enabled (batch size {}, flush interval {} ms, journal {})",
+                batchSize, flushIntervalMs, journalPath.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<PendingRecord> remaining = new ArrayList<>(unfinished);
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.close();
+            }
+            if (queue.isEmpty()) {
+                Files.deleteIfExists(journalPath);
+            }
+        }
+    }
+
+    /**
+     * Accepts a check-in for asynchronous persistence. Duplicate check-ins are rejected
+     * beforehand by {@link AttendanceCheckInLedger}.
+     *
+     * @throws IllegalStateException if {@code queue-capacity} records are already waiting.
+     */
+    public void accept(Long userId, Long courseId, LocalDateTime timestamp, LocalDate checkInDate, boolean verified) {
+        PendingRecord record = new PendingRecord(userId, courseId, timestamp, checkInDate, verified);
+        synchronized (journalLock) {
+            // Only accept() adds to the queue, so the check holds until the add below
+            if (queue.remainingCapacity() == 0) {
+                throw new IllegalStateException("Too many check-ins are being processed, please try again");
+            }
+            try {
+                ByteBuffer line = ByteBuffer.wrap((record.toJournalLine() + "\n").getBytes(StandardCharsets.UTF_8));
+                while (line.hasRemaining()) {
+                    journal.write(line);
+                }
+                if (syncJournal) {
+                    journal.force(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to journal attendance record", e);
+            }
+            queue.add(record);
+        }
+    }
+
+    private void runWorker() {
+        List<PendingRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flushWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    // Hand the unfinished batch over so stop() writes it
+                    unfinished.addAll(batch);
+                    batch.clear();
+                }
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flushWithRetry(List<PendingRecord> batch) throws InterruptedException {
+        long backoffMs = flushIntervalMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (attempt <= maxAttempts) {
+                    flush(batch);
+                } else {
+                    flushEachOrSetAside(batch);
+                }
+                compactJournal();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} attendance record(s) (attempt {}), retrying in {} ms: {}",
+                        batch.size(), attempt, backoffMs, e.getMessage(), e);
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, TimeUnit.SECONDS.toMillis(30));
+            }
+        }
+    }
+
+    /**
+     * Writes the records one at a time, setting aside those the database rejects. Other
+     * failures propagate so the batch is retried; rows already written are skipped by the
+     * NOT EXISTS guard.
+     */
+    private void flushEachOrSetAside(List<PendingRecord> batch) {
+        for (PendingRecord record : batch) {
+            try {
+                flush(List.of(record));
+            } catch (NonTransientDataAccessException e) {
+                setAside(record, e);
+            }
+        }
+    }
+
+    private void setAside(PendingRecord record, Exception cause) {
+        log.error("Attendance record {} was rejected by the database and moved to {}: {}",
+                record.toJournalLine(), failedPath, cause.getMessage());
+        try {
+            Files.writeString(failedPath, record.toJournalLine() + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            log.error("Failed to write {}; the record is only in this log: {}", failedPath, e.getMessage());
+        }
+        failedRecords.increment();
+    }
+
+    private void flush(List<PendingRecord> batch) {
+        flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+            Date checkInDate = Date.valueOf(record.checkInDate());
+            ps.setLong(1, record.userId());
+            ps.setLong(2, record.courseId());
+            ps.setTimestamp(3, Timestamp.valueOf(record.timestamp()));
+            ps.setDate(4, checkInDate);
+            ps.setBoolean(5, record.verified());
+            ps.setLong(6, record.userId());
+            ps.setLong(7, record.courseId());
+            ps.setDate(8, checkInDate);
+        }));
+        flushedRecords.increment(batch.size());
+    }
+
+    private void compactJournal() {
+        synchronized (journalLock) {
+            if (!queue.isEmpty()) {
+                return;
+            }
+            try {
+                journal.truncate(0);
+            } catch (IOException e) {
+                log.warn("Failed to truncate attendance journal {}: {}", journalPath, e.getMessage());
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        // truncate(0) also moves the position back, so the channel is reused after compaction
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        List<PendingRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                try {
+                    records.add(PendingRecord.fromJournalLine(line));
+                } catch (RuntimeException e) {
+                    log.warn("Skipping unreadable attendance journal line '{}': {}", line, e.getMessage());
+                }
+            }
+        }
+        if (!records.isEmpty()) {
+            log.info("Replaying {} attendance record(s) from journal {}", records.size(), journalPath);
+            for (int from = 0; from < records.size(); from += batchSize) {
+                List<PendingRecord> batch = records.subList(from, Math.min(from + batchSize, records.size()));
+                try {
+                    flush(batch);
+                } catch (NonTransientDataAccessException e) {
+                    // One bad row must not keep the application from starting
+                    flushEachOrSetAside(batch);
+                }
+            }
+        }
+    }
+
+    private record PendingRecord(Long userId, Long courseId, LocalDateTime timestamp, LocalDate checkInDate,
+                                 boolean verified) {
+
+        String toJournalLine() {
+            return userId + "," + courseId + "," + timestamp + "," + checkInDate + "," + verified;
+        }
+
+        static PendingRecord fromJournalLine(String line) {
+            String[] parts = line.split(",");
+            LocalDateTime timestamp = LocalDateTime.parse(parts[2]);
+            if (parts.length == 4) {
+                // Journaled before the check-in day was recorded separately
+                return new PendingRecord(Long.parseLong(parts[0]), Long.parseLong(parts[1]), timestamp,
+                        timestamp.toLocalDate(), Boolean.parseBoolean(parts[3]));
+            }
+            return new PendingRecord(
+                    Long.parseLong(parts[0]),
+                    Long.parseLong(parts[1]),
+                    timestamp,
+                    LocalDate.parse(parts[3]),
+                    Boolean.parseBoolean(parts[4]));
+        }
+    }
+}
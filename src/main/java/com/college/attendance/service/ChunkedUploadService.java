@@ -0,0 +1,255 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.ChunkedUploadRequestDto;
+import com.college.attendance.dto.ChunkedUploadSessionDto;
+import com.college.attendance.dto.UploadStatusDto;
+import com.college.attendance.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Resumable uploads sent as a sequence of chunks.
+ * <p>
+ * A session reserves a file in the chunk directory; each chunk is streamed from the
+ * request body straight into it at its offset with {@link FileChannel#transferFrom}, so
+ * neither the chunk nor the file is held in memory. Bytes count as received as soon as
+ * they are written, so a chunk cut off by a dropped connection is resumed from where it
+ * stopped rather than resent. A complete file is handed to {@link AsyncUploadService}
+ * and stored like any other asynchronous upload.
+ * <p>
+ * Sessions live in memory, which assumes a single application instance; sessions idle for
+ * {@code session-ttl-hours} are discarded with their data.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    // Upper bound for one transferFrom call, so progress is recorded as a chunk streams in
+    private static final long TRANSFER_STEP = 1L << 20;
+
+    private final AsyncUploadService asyncUploadService;
+    private final Path chunkDir;
+    private final long maxFileBytes;
+    private final long maxChunkBytes;
+    private final int maxSessionsPerUser;
+    private final Duration sessionTtl;
+
+    private final ConcurrentMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(
+            AsyncUploadService asyncUploadService,
+            @Value("${upload.chunked.dir:./data/upload-chunks}") String chunkDir,
+            @Value("${upload.chunked.max-file-bytes:524288000}") long maxFileBytes,
+            @Value("${upload.chunked.max-chunk-bytes:8388608}") long maxChunkBytes,
+            @Value("${upload.chunked.max-sessions-per-user:5}") int maxSessionsPerUser,
+            @Value("${upload.chunked.session-ttl-hours:24}") long sessionTtlHours) {
+        this.asyncUploadService = asyncUploadService;
+        this.chunkDir = Paths.get(chunkDir);
+        this.maxFileBytes = maxFileBytes;
+        this.maxChunkBytes = maxChunkBytes;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+        this.sessionTtl = Duration.ofHours(sessionTtlHours);
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(chunkDir);
+        // Sessions do not survive a restart, so neither does their data
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(chunkDir)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file is larger than {@code max-file-bytes}.
+     * @throws IllegalStateException if the user already has {@code max-sessions-per-user} open sessions.
+     */
+    public ChunkedUploadSessionDto create(Long ownerId, ChunkedUploadRequestDto request) throws IOException {
+        if (request.getFileSize() > maxFileBytes) {
+            throw new IllegalArgumentException("File is larger than the " + (maxFileBytes >> 20) + " MB limit");
+        }
+        long open = sessions.values().stream().filter(session -> session.ownerId.equals(ownerId)).count();
+        if (open >= maxSessionsPerUser) {
+            throw new IllegalStateException("Too many unfinished uploads; complete or cancel one first");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Path path = chunkDir.resolve(uploadId);
+        Files.createFile(path);
+        UploadSession session = new UploadSession(uploadId, ownerId, request.getFileName(),
+                request.getContentType(), request.getFileSize(), path);
+        sessions.put(uploadId, session);
+        return toDto(session);
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the session is unknown, finished or belongs to someone else.
+     */
+    public ChunkedUploadSessionDto getSession(String uploadId, Long ownerId) {
+        return toDto(find(uploadId, ownerId));
+    }
+
+    /**
+     * Appends a chunk that starts at {@code offset}, which must equal the bytes received so far.
+     *
+     * @param contentLength the chunk's declared length, or -1 if unknown.
+     * @throws IllegalStateException if the offset does not match or the file is already complete.
+     * @throws IllegalArgumentException if the chunk is longer than allowed.
+     */
+    public ChunkedUploadSessionDto appendChunk(String uploadId, Long ownerId, long offset,
+                                               long contentLength, InputStream body) throws IOException {
+        UploadSession session = find(uploadId, ownerId);
+        synchronized (session) {
+            checkOpen(session);
+            if (offset != session.received) {
+                throw new IllegalStateException("Chunk starts at byte " + offset + " but "
+                        + session.received + " bytes have been received");
+            }
+            long limit = Math.min(maxChunkBytes, session.fileSize - session.received);
+            if (limit == 0) {
+                throw new IllegalStateException("All bytes of the file have already been received");
+            }
+            if (contentLength > limit) {
+                throw new IllegalArgumentException("Chunk is longer than the " + limit + " bytes allowed");
+            }
+
+            try (FileChannel channel = FileChannel.open(session.path, StandardOpenOption.WRITE)) {
+                ReadableByteChannel source = Channels.newChannel(body);
+                long position = session.received;
+                long end = position + limit;
+                while (position < end) {
+                    long written = channel.transferFrom(source, position, Math.min(end - position, TRANSFER_STEP));
+                    if (written <= 0) {
+                        break;
+                    }
+                    position += written;
+                    session.received = position;
+                }
+            } finally {
+                session.lastActivity = Instant.now();
+            }
+            return toDto(session);
+        }
+    }
+
+    /**
+     * Hands the complete file to asynchronous storage and closes the session.
+     *
+     * @return the pending upload to poll for the stored file's URL.
+     * @throws IllegalStateException if bytes are still missing.
+     * @throws RejectedExecutionException if the upload queue is full; the session stays open.
+     */
+    public UploadStatusDto complete(String uploadId, Long ownerId) throws IOException {
+        UploadSession session = find(uploadId, ownerId);
+        synchronized (session) {
+            checkOpen(session);
+            if (session.received < session.fileSize) {
+                throw new IllegalStateException("Upload is incomplete: " + session.received + " of "
+                        + session.fileSize + " bytes received");
+            }
+            UploadStatusDto upload = asyncUploadService.submit(session.path, session.fileName,
+                    session.contentType, ownerId);
+            session.closed = true;
+            sessions.remove(uploadId, session);
+            return upload;
+        }
+    }
+
+    public void cancel(String uploadId, Long ownerId) throws IOException {
+        UploadSession session = find(uploadId, ownerId);
+        synchronized (session) {
+            checkOpen(session);
+            discard(session);
+        }
+    }
+
+    @Scheduled(fixedRate = 3600000)
+    public void evictIdleSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        for (UploadSession session : sessions.values()) {
+            synchronized (session) {
+                if (!session.closed && session.lastActivity.isBefore(cutoff)) {
+                    try {
+                        discard(session);
+                        log.info("Discarded idle chunked upload {} ({} of {} bytes)",
+                                session.uploadId, session.received, session.fileSize);
+                    } catch (IOException e) {
+                        log.warn("Could not delete idle chunked upload {}: {}", session.uploadId, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void discard(UploadSession session) throws IOException {
+        session.closed = true;
+        sessions.remove(session.uploadId, session);
+        Files.deleteIfExists(session.path);
+    }
+
+    private UploadSession find(String uploadId, Long ownerId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null || !session.ownerId.equals(ownerId)) {
+            throw new ResourceNotFoundException("Upload session not found");
+        }
+        return session;
+    }
+
+    private static void checkOpen(UploadSession session) {
+        // Completed or cancelled by a concurrent request after the lookup
+        if (session.closed) {
+            throw new ResourceNotFoundException("Upload session not found");
+        }
+    }
+
+    private ChunkedUploadSessionDto toDto(UploadSession session) {
+        return new ChunkedUploadSessionDto(session.uploadId, session.fileName, session.fileSize,
+                session.received, maxChunkBytes);
+    }
+
+    private static final class UploadSession {
+
+        private final String uploadId;
+        private final Long ownerId;
+        private final String fileName;
+        private final String contentType;
+        private final long fileSize;
+        private final Path path;
+
+        // Guarded by the session's monitor; volatile for lock-free reads in toDto and eviction
+        private volatile long received;
+        private volatile Instant lastActivity = Instant.now();
+        private volatile boolean closed;
+
+        UploadSession(String uploadId, Long ownerId, String fileName, String contentType, long fileSize, Path path) {
+            this.uploadId = uploadId;
+            this.ownerId = ownerId;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.fileSize = fileSize;
+            this.path = path;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.college.attendance.service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 public interface CloudinaryService {
 
@@ -24,4 +25,14 @@ public interface CloudinaryService {
      * @throws IOException If an error occurs during upload.
      */
     String uploadFile(MultipartFile file, String publicId) throws IOException;
+
+    /**
+     * Uploads a file already on local disk to Cloudinary, streaming it from there.
+     *
+     * @param file             The file to upload.
+     * @param originalFilename The client's name for the file, used for the public ID and resource type.
+     * @return The secure URL of the uploaded file.
+     * @throws IOException If an error occurs during upload.
+     */
+    String uploadFile(Path file, String originalFilename) throws IOException;
 }
\ No newline at end of file
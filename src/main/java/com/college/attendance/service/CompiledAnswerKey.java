@@ -0,0 +1,108 @@
+package com.college.attendance.service;
+
+import com.college.attendance.model.Question;
+import com.college.attendance.model.QuestionOption;
+import com.college.attendance.model.QuestionType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, array-based answer key for one quiz.
+ * <p>
+ * Questions are sorted by ID so a submitted answer is located with a binary search, and
+ * each question's valid and correct option IDs are kept as sorted {@code long[]}s. Text
+ * answers are compared case-insensitively, as before. Instances are safe to share between
+ * threads and are cached by {@link QuizGradingService}.
+ */
+final class CompiledAnswerKey {
+
+    static final byte MULTIPLE_CHOICE = 1;
+    static final byte TEXT_ANSWER = 2;
+    static final byte UNGRADED = 0;
+
+    private static final long[] NO_OPTIONS = new long[0];
+
+    private final long[] questionIds;
+    private final int[] points;
+    private final byte[] types;
+    private final long[][] optionIds;
+    private final long[][] correctOptionIds;
+    private final String[] textAnswers;
+
+    private CompiledAnswerKey(int size) {
+        questionIds = new long[size];
+        points = new int[size];
+        types = new byte[size];
+        optionIds = new long[size][];
+        correctOptionIds = new long[size][];
+        textAnswers = new String[size];
+    }
+
+    static CompiledAnswerKey compile(List<Question> questions) {
+        Question[] sorted = questions.toArray(new Question[0]);
+        Arrays.sort(sorted, Comparator.comparing(Question::getId));
+
+        CompiledAnswerKey key = new CompiledAnswerKey(sorted.length);
+        for (int i = 0; i < sorted.length; i++) {
+            Question question = sorted[i];
+            key.questionIds[i] = question.getId();
+            key.points[i] = question.getPoints() != null ? question.getPoints() : 0;
+            key.types[i] = question.getType() == QuestionType.MULTIPLE_CHOICE ? MULTIPLE_CHOICE
+                    : question.getType() == QuestionType.TEXT_ANSWER ? TEXT_ANSWER
+                    : UNGRADED;
+            key.textAnswers[i] = question.getCorrectAnswer();
+
+            List<QuestionOption> options = question.getOptions();
+            if (options == null || options.isEmpty()) {
+                key.optionIds[i] = NO_OPTIONS;
+                key.correctOptionIds[i] = NO_OPTIONS;
+            } else {
+                key.optionIds[i] = options.stream().mapToLong(QuestionOption::getId).sorted().toArray();
+                key.correctOptionIds[i] = options.stream()
+                        .filter(QuestionOption::isCorrect)
+                        .mapToLong(QuestionOption::getId)
+                        .sorted()
+                        .toArray();
+            }
+        }
+        return key;
+    }
+
+    /**
+     * @return the position of the question in this key, or a negative value if the
+     *         question does not belong to the quiz.
+     */
+    int indexOf(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    long questionId(int index) {
+        return questionIds[index];
+    }
+
+    int points(int index) {
+        return points[index];
+    }
+
+    byte type(int index) {
+        return types[index];
+    }
+
+    boolean hasOption(int index, long optionId) {
+        return Arrays.binarySearch(optionIds[index], optionId) >= 0;
+    }
+
+    boolean isCorrectOption(int index, long optionId) {
+        return Arrays.binarySearch(correctOptionIds[index], optionId) >= 0;
+    }
+
+    boolean isCorrectText(int index, String answer) {
+        return answer != null && answer.equalsIgnoreCase(textAnswers[index]);
+    }
+
+    int size() {
+        return questionIds.length;
+    }
+}
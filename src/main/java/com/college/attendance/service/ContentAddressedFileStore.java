@@ -0,0 +1,209 @@
+package com.college.attendance.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Deduplicating blob store in the upload directory.
+ * <p>
+ * Uploads are hashed with SHA-256 while they are streamed to a temporary file, and each
+ * distinct content is kept once as a blob in {@value #BLOB_DIRECTORY}, named after its hash.
+ * Every upload, including one of bytes that are already stored, gets its own
+ * {@code stored_files} row with a random name and the uploader's file name and content
+ * type, pointing at the blob by hash. URLs name that row, so they neither reveal the hash
+ * nor let anyone check whether some content has been uploaded, and one uploader's file
+ * name is never shown to another.
+ * <p>
+ * {@link #collectUnreferenced} deletes the rows that no {@code FileInfo} or question image
+ * points at, then the blobs left without rows, once they are older than the grace period.
+ * Placing and deleting a blob are serialized per hash within this instance.
+ */
+@Component
+@Slf4j
+public class ContentAddressedFileStore {
+
+    /**
+     * Directory under the upload directory that holds the blobs. It is never served by name.
+     */
+    public static final String BLOB_DIRECTORY = ".blobs";
+
+    private static final String TOUCH_SQL =
+            "UPDATE file_blobs SET last_used_at = ? WHERE content_hash = ? RETURNING storage_name";
+
+    private static final String INSERT_BLOB_SQL =
+            "INSERT INTO file_blobs (content_hash, storage_name, size_bytes, created_at, last_used_at) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (content_hash) DO UPDATE SET last_used_at = EXCLUDED.last_used_at";
+
+    private static final String INSERT_REFERENCE_SQL =
+            "INSERT INTO stored_files (storage_name, original_name, content_type, size_bytes, created_at, content_hash) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCATE_SQL =
+            "SELECT storage_name FROM file_blobs WHERE content_hash = ?";
+
+    // Every FileInfo URL and question image that names a stored file under /api/files/
+    private static final String DELETE_REFERENCES_SQL =
+            "WITH referenced AS (" +
+            "SELECT substring(url from '/api/files/([^/?#]+)') AS name FROM (" +
+            "SELECT file_url AS url FROM assignment_files " +
+            "UNION ALL SELECT file_url FROM submission_files " +
+            "UNION ALL SELECT image_url FROM questions" +
+            ") urls) " +
+            "DELETE FROM stored_files WHERE content_hash IS NOT NULL AND created_at < ? " +
+            "AND storage_name NOT IN (SELECT name FROM referenced WHERE name IS NOT NULL) " +
+            "RETURNING storage_name";
+
+    private static final String UNREFERENCED_BLOBS_SQL =
+            "SELECT b.content_hash FROM file_blobs b WHERE b.last_used_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM stored_files s WHERE s.content_hash = b.content_hash)";
+
+    private static final String DELETE_BLOB_SQL =
+            "DELETE FROM file_blobs b WHERE b.content_hash = ? AND b.last_used_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM stored_files s WHERE s.content_hash = b.content_hash) " +
+            "RETURNING b.storage_name";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path root;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ContentAddressedFileStore(JdbcTemplate jdbcTemplate, @Value("${file.upload-dir}") String uploadDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * A stored upload: its own name in the upload directory, its size and the path of its blob.
+     */
+    public record StoredUpload(String storageName, long size, Path blob) {
+    }
+
+    /**
+     * What {@link #collectUnreferenced} deleted: the names of upload rows, and the paths of
+     * blobs relative to the upload directory.
+     */
+    public record Collected(List<String> storageNames, List<String> blobs) {
+    }
+
+    /**
+     * Stores the stream's contents, or references the existing blob with the same contents,
+     * under a new name of its own. The stream is consumed but not closed.
+     */
+    public StoredUpload put(InputStream content, String originalFileName, String contentType) throws IOException {
+        Files.createDirectories(root.resolve(BLOB_DIRECTORY));
+        Path incoming = root.resolve(".incoming-" + UUID.randomUUID());
+        try {
+            MessageDigest digest = sha256();
+            Files.copy(new DigestInputStream(content, digest), incoming);
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            long size = Files.size(incoming);
+            List<String> existing = jdbcTemplate.queryForList(TOUCH_SQL, String.class, now, hash);
+            String blobName;
+            if (!existing.isEmpty()) {
+                blobName = existing.get(0);
+            } else {
+                blobName = BLOB_DIRECTORY + "/" + hash;
+                synchronized (lockFor(hash)) {
+                    try {
+                        Files.move(incoming, root.resolve(blobName), StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // Left behind by an earlier attempt; same name, same contents
+                    }
+                    jdbcTemplate.update(INSERT_BLOB_SQL, hash, blobName, size, now, now);
+                }
+            }
+
+            String storageName = UUID.randomUUID() + extension(originalFileName);
+            jdbcTemplate.update(INSERT_REFERENCE_SQL, storageName, originalFileName, contentType, size, now, hash);
+            return new StoredUpload(storageName, size, root.resolve(blobName));
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+    }
+
+    /**
+     * Finds the blob with the given hash.
+     *
+     * @return the blob's path, or empty if there is no such blob.
+     */
+    public Optional<Path> locate(String contentHash) {
+        return jdbcTemplate.queryForList(LOCATE_SQL, String.class, contentHash).stream()
+                .findFirst()
+                .map(root::resolve);
+    }
+
+    /**
+     * Deletes the upload rows created before {@code grace} that nothing references, then the
+     * blobs that have no rows left and were not uploaded again within {@code grace}.
+     */
+    public Collected collectUnreferenced(Duration grace) {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(grace));
+        List<String> storageNames = jdbcTemplate.queryForList(DELETE_REFERENCES_SQL, String.class, cutoff);
+
+        List<String> blobs = new ArrayList<>();
+        for (String hash : jdbcTemplate.queryForList(UNREFERENCED_BLOBS_SQL, String.class, cutoff)) {
+            synchronized (lockFor(hash)) {
+                for (String blobName : jdbcTemplate.queryForList(DELETE_BLOB_SQL, String.class, hash, cutoff)) {
+                    try {
+                        Files.deleteIfExists(root.resolve(blobName));
+                        blobs.add(blobName);
+                    } catch (IOException e) {
+                        log.warn("Could not delete unreferenced file {}: {}", blobName, e.getMessage());
+                    }
+                }
+            }
+        }
+        return new Collected(storageNames, blobs);
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String extension(String originalFileName) {
+        if (originalFileName == null) {
+            return "";
+        }
+        int dot = originalFileName.lastIndexOf('.');
+        String extension = dot >= 0 ? originalFileName.substring(dot).toLowerCase(Locale.ROOT) : "";
+        // Only keep plain extensions; anything else would end up in a URL path segment
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.college.attendance.service;
+
+import com.college.attendance.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory copy of {@code user_courses} for membership checks on hot paths.
+ * <p>
+ * Both directions are kept as sorted {@code long[]} arrays, so a lookup is a binary search
+ * and never touches the lazy {@code User.courses} collection. Arrays are replaced rather
+ * than mutated, which lets readers go without locks. The maps are loaded once at startup
+ * and kept current by {@link #enroll}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentMembershipService {
+
+    private static final long[] NONE = new long[0];
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentMap<Long, long[]> coursesByUser = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, long[]> usersByCourse = new ConcurrentHashMap<>();
+
+    /**
+     * Loads every enrollment from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = userRepository.findAllEnrollments();
+        Map<Long, long[]> byUser = new HashMap<>();
+        Map<Long, long[]> byCourse = new HashMap<>();
+        for (Object[] row : rows) {
+            long userId = ((Number) row[0]).longValue();
+            long courseId = ((Number) row[1]).longValue();
+            byUser.put(userId, insert(byUser.get(userId), courseId));
+            byCourse.put(courseId, insert(byCourse.get(courseId), userId));
+        }
+        coursesByUser.clear();
+        coursesByUser.putAll(byUser);
+        usersByCourse.clear();
+        usersByCourse.putAll(byCourse);
+        log.info("Enrollment membership loaded with {} enrollment(s).", rows.size());
+    }
+
+    public boolean isEnrolled(Long userId, Long courseId) {
+        if (userId == null || courseId == null) {
+            return false;
+        }
+        long[] courseIds = coursesByUser.get(userId);
+        return courseIds != null && Arrays.binarySearch(courseIds, courseId) >= 0;
+    }
+
+    /**
+     * @return the IDs of the courses the user is enrolled in, in ascending order.
+     */
+    public List<Long> courseIdsOf(Long userId) {
+        return boxed(coursesByUser.getOrDefault(userId, NONE));
+    }
+
+    /**
+     * @return the IDs of the users enrolled in the course, in ascending order.
+     */
+    public List<Long> userIdsOf(Long courseId) {
+        return boxed(usersByCourse.getOrDefault(courseId, NONE));
+    }
+
+    /**
+     * Records an enrollment that has been written to {@code user_courses}.
+     */
+    public void enroll(Long userId, Long courseId) {
+        coursesByUser.compute(userId, (id, courseIds) -> insert(courseIds, courseId));
+        usersByCourse.compute(courseId, (id, userIds) -> insert(userIds, userId));
+    }
+
+    private static long[] insert(long[] values, long value) {
+        if (values == null) {
+            return new long[]{value};
+        }
+        int index = Arrays.binarySearch(values, value);
+        if (index >= 0) {
+            return values;
+        }
+        int insertAt = -index - 1;
+        long[] copy = new long[values.length + 1];
+        System.arraycopy(values, 0, copy, 0, insertAt);
+        copy[insertAt] = value;
+        System.arraycopy(values, insertAt, copy, insertAt + 1, values.length - insertAt);
+        return copy;
+    }
+
+    private static List<Long> boxed(long[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+}
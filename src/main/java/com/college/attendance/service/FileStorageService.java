@@ -1,65 +1,271 @@
 package com.college.attendance.service;
 
 import com.college.attendance.model.FileInfo;
+import com.college.attendance.model.StoredFile;
+import com.college.attendance.repository.StoredFileRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class FileStorageService {
-    
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
     @Value("${file.upload-dir}")
     private String uploadDir;
-    
+
+    private final StoredFileRepository storedFileRepository;
+    private final ContentAddressedFileStore contentAddressedFileStore;
+    private final ImageDerivativeService imageDerivativeService;
+
+    // Stored files never change; entries only go stale when an unreferenced file is deleted
+    private final Cache<String, LocalFile> localFiles = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /**
+     * A locally stored file with the metadata needed to serve it.
+     */
+    public record LocalFile(Path path, String fileName, String contentType, long size, Instant lastModified,
+                            String contentHash) {
+
+        /**
+         * Strong validator: the content hash of deduplicated files, otherwise derived from the
+         * size and modification time (stored files are immutable).
+         */
+        public String etag() {
+            if (contentHash != null) {
+                return "\"" + contentHash + "\"";
+            }
+            return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified.toEpochMilli()) + "\"";
+        }
+    }
+
     /**
-     * Standard method to store any file
+     * Standard method to store any file. Identical contents are stored once, but each upload
+     * gets its own URL and keeps its own file name.
      */
     public FileInfo storeFile(MultipartFile file) throws IOException {
-        return storeFile(file, "");
+        try (InputStream content = file.getInputStream()) {
+            return storeDeduplicated(content, file.getOriginalFilename(), file.getContentType());
+        }
     }
-    
+
     /**
      * Store professor ID images in a specific subfolder
      */
     public FileInfo storeProfessorIdImage(MultipartFile file) throws IOException {
         return storeFile(file, "professor-id/");
     }
-    
+
+    /**
+     * Store a file that is already on local disk, such as a spooled upload. The source is
+     * copied and left in place; identical contents are stored once.
+     */
+    public FileInfo storeFile(Path source, String originalFileName, String contentType) throws IOException {
+        try (InputStream content = Files.newInputStream(source)) {
+            return storeDeduplicated(content, originalFileName, contentType);
+        }
+    }
+
+    /**
+     * Deletes deduplicated uploads that nothing has referenced within {@code grace}, and the
+     * stored contents and image derivatives that no upload uses any more.
+     *
+     * @return the number of uploads deleted.
+     */
+    public int deleteUnreferencedFiles(Duration grace) {
+        ContentAddressedFileStore.Collected collected = contentAddressedFileStore.collectUnreferenced(grace);
+        localFiles.invalidateAll(collected.storageNames());
+        for (String blob : collected.blobs()) {
+            for (Path derivative : derivativeTargets(uploadRoot().resolve(blob)).values()) {
+                localFiles.invalidate(derivative.toString());
+                try {
+                    Files.deleteIfExists(derivative);
+                } catch (IOException e) {
+                    // An orphaned derivative only costs disk space
+                }
+            }
+        }
+        return collected.storageNames().size();
+    }
+
+    /**
+     * Looks up a downscaled copy of a stored image, at least {@code width} pixels wide. The
+     * original is returned for files that are not images, when no derivative is that wide,
+     * and while the derivative has not been generated yet.
+     *
+     * @throws IllegalArgumentException if the width is not positive.
+     */
+    public Optional<LocalFile> resolveImage(String storageName, int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Image size must be positive");
+        }
+        Optional<LocalFile> original = resolve(storageName);
+        OptionalInt derivativeWidth = imageDerivativeService.widthFor(width);
+        if (original.isEmpty() || derivativeWidth.isEmpty()
+                || !ImageDerivativeService.isImage(original.get().contentType())) {
+            return original;
+        }
+
+        LocalFile source = original.get();
+        Path path = derivativePath(source.path(), derivativeWidth.getAsInt());
+        // Keyed by path: uploads of the same image share the blob's derivatives
+        LocalFile scaled = localFiles.getIfPresent(path.toString());
+        if (scaled == null) {
+            if (!Files.isRegularFile(path)) {
+                // Uploaded before derivatives existed, or still queued
+                imageDerivativeService.schedule(source.path(), derivativeTargets(source.path()));
+                return original;
+            }
+            try {
+                scaled = new LocalFile(path, null, null, Files.size(path),
+                    Files.getLastModifiedTime(path).toInstant(), null);
+            } catch (IOException e) {
+                return original;
+            }
+            localFiles.put(path.toString(), scaled);
+        }
+        return Optional.of(new LocalFile(scaled.path(), source.fileName(), source.contentType(),
+            scaled.size(), scaled.lastModified(), null));
+    }
+
+    /**
+     * Looks up a stored file by its path relative to the upload directory. Deduplicated
+     * uploads are served from their blob, with the metadata of the upload itself.
+     *
+     * @return empty if there is no such readable file, or the name points outside the upload
+     *         directory or into the blob directory.
+     */
+    public Optional<LocalFile> resolve(String storageName) {
+        Path root = uploadRoot();
+        Path named = root.resolve(storageName).normalize();
+        if (!named.startsWith(root) || named.equals(root)
+                || named.startsWith(root.resolve(ContentAddressedFileStore.BLOB_DIRECTORY))) {
+            return Optional.empty();
+        }
+        LocalFile cached = localFiles.getIfPresent(storageName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<StoredFile> stored = storedFileRepository.findByStorageName(storageName);
+        String contentHash = stored.map(StoredFile::getContentHash).orElse(null);
+        Path path = contentHash != null ? contentAddressedFileStore.locate(contentHash).orElse(null) : named;
+        if (path == null || !Files.isRegularFile(path) || !Files.isReadable(path)) {
+            return Optional.empty();
+        }
+
+        LocalFile file = stored
+            .map(row -> new LocalFile(path, row.getOriginalName(), row.getContentType(),
+                row.getSizeBytes(), row.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant(),
+                row.getContentHash()))
+            .orElse(null);
+        if (file == null) {
+            // Uploaded before metadata was recorded; probe it once
+            try {
+                String contentType = Files.probeContentType(path);
+                file = new LocalFile(path, path.getFileName().toString(),
+                    contentType != null ? contentType : DEFAULT_CONTENT_TYPE,
+                    Files.size(path), Files.getLastModifiedTime(path).toInstant(), null);
+            } catch (IOException e) {
+                return Optional.empty();
+            }
+        }
+        localFiles.put(storageName, file);
+        return Optional.of(file);
+    }
+
+    private FileInfo storeDeduplicated(InputStream content, String originalFileName, String contentType)
+            throws IOException {
+        ContentAddressedFileStore.StoredUpload upload = contentAddressedFileStore.put(
+            content, originalFileName, effectiveContentType(contentType));
+        scheduleDerivatives(upload.blob(), contentType);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setFileName(originalFileName);
+        fileInfo.setFileUrl("/api/files/" + upload.storageName());
+        fileInfo.setContentType(effectiveContentType(contentType));
+        fileInfo.setFileSize(upload.size());
+        fileInfo.setUploadedAt(LocalDateTime.now());
+        return fileInfo;
+    }
+
     /**
      * Core file storage method with subfolder support
      */
     private FileInfo storeFile(MultipartFile file, String subFolder) throws IOException {
+        Path targetLocation = newTarget(subFolder, file.getOriginalFilename());
+
+        // Move or stream the upload to the target location without buffering it in memory
+        file.transferTo(targetLocation);
+
+        return record(subFolder, targetLocation, file.getOriginalFilename(), file.getContentType());
+    }
+
+    private Path uploadRoot() {
+        return Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    private Path newTarget(String subFolder, String originalFileName) throws IOException {
         // Create the full upload path with subfolder
-        Path uploadPath = Paths.get(uploadDir, subFolder);
+        Path uploadPath = uploadRoot().resolve(subFolder);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
-        
+
         // Generate a unique file name
-        String originalFileName = file.getOriginalFilename();
         String fileExtension = "";
         if (originalFileName != null && originalFileName.contains(".")) {
             fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
         }
-        
-        String uniqueFileName = UUID.randomUUID().toString() + fileExtension;
-        
-        // Copy the file to the target location
-        Path targetLocation = uploadPath.resolve(uniqueFileName);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-        
-        // Create and return file info with the API endpoint path instead of direct file path
+
+        return uploadPath.resolve(UUID.randomUUID().toString() + fileExtension);
+    }
+
+    /**
+     * Records the stored file's metadata and builds the file info with its API endpoint path.
+     */
+    private FileInfo record(String subFolder, Path targetLocation, String originalFileName, String contentType)
+            throws IOException {
+        String uniqueFileName = targetLocation.getFileName().toString();
+        long size = Files.size(targetLocation);
+        String effectiveContentType = effectiveContentType(contentType);
+        LocalDateTime now = LocalDateTime.now();
+
+        storedFileRepository.save(StoredFile.builder()
+            .storageName(subFolder + uniqueFileName)
+            .originalName(originalFileName)
+            .contentType(effectiveContentType)
+            .sizeBytes(size)
+            .createdAt(now)
+            .build());
+        scheduleDerivatives(targetLocation, effectiveContentType);
+
         FileInfo fileInfo = new FileInfo();
         fileInfo.setFileName(originalFileName);
-        
+
         // Set different URL pattern based on file type
         if (subFolder.equals("professor-id/")) {
             // For professor ID images - use API endpoint
@@ -68,11 +274,42 @@ public class FileStorageService {
             // For regular files - use API endpoint
             fileInfo.setFileUrl("/api/files/" + uniqueFileName);
         }
-        
-        fileInfo.setContentType(file.getContentType());
-        fileInfo.setFileSize(file.getSize());
-        fileInfo.setUploadedAt(LocalDateTime.now());
-        
+
+        fileInfo.setContentType(effectiveContentType);
+        fileInfo.setFileSize(size);
+        fileInfo.setUploadedAt(now);
+
         return fileInfo;
     }
-} 
\ No newline at end of file
+
+    private void scheduleDerivatives(Path source, String contentType) {
+        if (ImageDerivativeService.isImage(contentType)) {
+            imageDerivativeService.schedule(source, derivativeTargets(source));
+        }
+    }
+
+    private Map<Integer, Path> derivativeTargets(Path source) {
+        Map<Integer, Path> targets = new LinkedHashMap<>();
+        for (int width : imageDerivativeService.widths()) {
+            targets.put(width, derivativePath(source, width));
+        }
+        return targets;
+    }
+
+    /**
+     * Derivatives sit next to the file they are made from: {@code name.png} becomes
+     * {@code name_w160.png}, and a blob {@code <hash>} becomes {@code <hash>_w160}.
+     */
+    private static Path derivativePath(Path source, int width) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String derivative = dot <= 0
+            ? name + "_w" + width
+            : name.substring(0, dot) + "_w" + width + name.substring(dot);
+        return source.resolveSibling(derivative);
+    }
+
+    private static String effectiveContentType(String contentType) {
+        return contentType != null && !contentType.isBlank() ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+}
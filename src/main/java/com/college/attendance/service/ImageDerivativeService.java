@@ -0,0 +1,214 @@
+package com.college.attendance.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates downscaled copies of stored images with the JDK's ImageIO.
+ * <p>
+ * Each image gets one derivative per configured width, written by a bounded pool of
+ * {@code workers} threads so decoding never runs on a request thread. Large sources are
+ * decoded with subsampling, so a photo is never held in memory at full resolution. When
+ * the queue is full the work is dropped; the original is served until a later request
+ * schedules it again. Images no wider than a derivative are copied unchanged.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeService {
+
+    // Decoded images above this many pixels are refused (about 100 MB as ARGB)
+    private static final long MAX_DECODED_PIXELS = 25_000_000L;
+
+    private final int[] widths;
+    private final ThreadPoolExecutor executor;
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Sources that could not be decoded are not retried on every request
+    private final Cache<Path, Boolean> failed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    public ImageDerivativeService(
+            @Value("${image.derivatives.widths:160,480}") int[] widths,
+            @Value("${image.derivatives.workers:2}") int workers,
+            @Value("${image.derivatives.queue-capacity:100}") int queueCapacity) {
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Anything not generated yet is scheduled again when it is first requested
+        executor.shutdownNow();
+    }
+
+    public int[] widths() {
+        return widths.clone();
+    }
+
+    /**
+     * The smallest derivative width that is at least {@code requested}, or empty if the
+     * original should be served.
+     */
+    public OptionalInt widthFor(int requested) {
+        return Arrays.stream(widths).filter(width -> width >= requested).findFirst();
+    }
+
+    public static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    /**
+     * Queues generation of the derivatives of {@code source} that do not exist yet.
+     *
+     * @param targets the file to write for each width.
+     */
+    public void schedule(Path source, Map<Integer, Path> targets) {
+        if (failed.getIfPresent(source) != null
+                || targets.values().stream().allMatch(Files::exists)
+                || !inFlight.add(source)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(source, targets);
+                } catch (Exception e) {
+                    failed.put(source, Boolean.TRUE);
+                    log.warn("Could not generate derivatives of {}: {}", source, e.getMessage());
+                } finally {
+                    inFlight.remove(source);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(source);
+            log.debug("Derivative queue full, skipping {}", source);
+        }
+    }
+
+    void generate(Path source, Map<Integer, Path> targets) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                int largest = targets.keySet().stream().mapToInt(Integer::intValue).max().orElse(sourceWidth);
+
+                // Skip source pixels while decoding, keeping at least twice the largest width
+                int step = Math.max(1, sourceWidth / (largest * 2));
+                if ((long) (sourceWidth / step) * (sourceHeight / step) > MAX_DECODED_PIXELS) {
+                    throw new IOException("Image is too large: " + sourceWidth + "x" + sourceHeight);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                String format = reader.getFormatName();
+
+                for (Map.Entry<Integer, Path> target : targets.entrySet()) {
+                    if (Files.exists(target.getValue())) {
+                        continue;
+                    }
+                    if (sourceWidth <= target.getKey()) {
+                        replace(target.getValue(), tmp -> Files.copy(source, tmp));
+                    } else {
+                        BufferedImage scaled = scaleToWidth(image, target.getKey());
+                        replace(target.getValue(), tmp -> {
+                            if (!ImageIO.write(scaled, format, tmp.toFile())) {
+                                // No writer for this format and image type; keep the original bytes
+                                Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+                            }
+                        });
+                    }
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    static BufferedImage scaleToWidth(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        // Halve first: a single bilinear pass over a large ratio skips most source pixels and aliases
+        while (current.getWidth() / 2 >= width) {
+            current = resize(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return resize(current, width, height);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(width, height, type);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    /**
+     * Writes to a temporary file beside the target and moves it into place, so a derivative
+     * is never served half-written.
+     */
+    private static void replace(Path target, PathWriter writer) throws IOException {
+        Path tmp = target.resolveSibling(".derivative-" + UUID.randomUUID());
+        try {
+            writer.write(tmp);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PathWriter {
+        void write(Path tmp) throws IOException;
+    }
+}
@@ -0,0 +1,225 @@
+package com.college.attendance.service;
+
+import com.college.attendance.service.QuizGradingService.GradedAnswer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Coalesces autosaved quiz answers in memory and writes them in batches.
+ * <p>
+ * Each attempt keeps only the latest answer per question, so a student changing an answer
+ * several times between flushes costs one row write. Every {@code flush-interval-ms} the
+ * pending answers of all attempts are upserted on (attempt, question) in JDBC batches;
+ * rows for attempts that have meanwhile been completed are skipped.
+ * <p>
+ * A submission {@linkplain #drain drains} its attempt's buffer, waiting for any flush of
+ * that attempt still in flight, so it sees every answer exactly once: either in the
+ * database or in the drained list.
+ */
+@Component
+@Slf4j
+public class QuizAnswerAutosaveBuffer {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO quiz_answers (attempt_id, question_id, selected_option_id, text_answer, points_awarded, graded) " +
+            "SELECT ?, ?, ?, ?, ?, ? WHERE EXISTS (" +
+            "SELECT 1 FROM quiz_attempts WHERE id = ? AND completed = FALSE) " +
+            "ON CONFLICT (attempt_id, question_id) DO UPDATE SET " +
+            "selected_option_id = EXCLUDED.selected_option_id, text_answer = EXCLUDED.text_answer, " +
+            "points_awarded = EXCLUDED.points_awarded, graded = EXCLUDED.graded";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    private final ConcurrentMap<Long, AttemptBuffer> buffers = new ConcurrentHashMap<>();
+
+    public QuizAnswerAutosaveBuffer(
+            JdbcTemplate jdbcTemplate,
+            @Value("${quiz.autosave.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Buffers graded answers for the attempt, replacing earlier answers to the same questions.
+     *
+     * @throws IllegalStateException if the attempt has already been submitted.
+     */
+    public void save(Long attemptId, List<GradedAnswer> answers) {
+        while (true) {
+            AttemptBuffer buffer = buffers.computeIfAbsent(attemptId, id -> new AttemptBuffer());
+            if (buffer.put(answers)) {
+                return;
+            }
+            // The buffer was retired by a flush between lookup and put; use a fresh one
+            buffers.remove(attemptId, buffer);
+        }
+    }
+
+    /**
+     * Takes the attempt's unsaved answers for its final submission. Later {@link #save}
+     * calls for the attempt are rejected until {@link #restore} is called.
+     */
+    public List<GradedAnswer> drain(Long attemptId) {
+        while (true) {
+            AttemptBuffer buffer = buffers.computeIfAbsent(attemptId, id -> new AttemptBuffer());
+            List<GradedAnswer> answers = buffer.drain();
+            if (answers != null) {
+                return answers;
+            }
+            buffers.remove(attemptId, buffer);
+        }
+    }
+
+    /**
+     * Hands drained answers back when the submission that took them failed.
+     */
+    public void restore(Long attemptId, List<GradedAnswer> answers) {
+        AttemptBuffer buffer = buffers.get(attemptId);
+        if (buffer != null) {
+            buffer.reopen(answers);
+        }
+    }
+
+    /**
+     * Forgets an attempt's buffer once its submission has committed.
+     */
+    public void discard(Long attemptId) {
+        buffers.remove(attemptId);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.autosave.flush-interval-ms:2000}")
+    @PreDestroy
+    public void flush() {
+        List<Map.Entry<AttemptBuffer, List<GradedAnswer>>> inFlight = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, AttemptBuffer> entry : buffers.entrySet()) {
+            AttemptBuffer buffer = entry.getValue();
+            List<GradedAnswer> answers = buffer.beginFlush();
+            if (answers == null) {
+                // Idle for a whole interval; drop it so finished attempts do not accumulate
+                buffers.remove(entry.getKey(), buffer);
+                continue;
+            }
+            inFlight.add(Map.entry(buffer, answers));
+            for (GradedAnswer answer : answers) {
+                rows.add(new Object[]{entry.getKey(), answer});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        boolean written = false;
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, row) -> {
+                Long attemptId = (Long) row[0];
+                GradedAnswer answer = (GradedAnswer) row[1];
+                ps.setLong(1, attemptId);
+                ps.setLong(2, answer.questionId());
+                ps.setObject(3, answer.selectedOptionId(), Types.BIGINT);
+                ps.setString(4, answer.textAnswer());
+                ps.setObject(5, answer.pointsAwarded(), Types.INTEGER);
+                ps.setBoolean(6, answer.graded());
+                ps.setLong(7, attemptId);
+            });
+            written = true;
+        } catch (RuntimeException e) {
+            log.error("Failed to autosave {} quiz answer(s), will retry: {}", rows.size(), e.getMessage(), e);
+        } finally {
+            for (Map.Entry<AttemptBuffer, List<GradedAnswer>> flushed : inFlight) {
+                flushed.getKey().endFlush(written ? null : flushed.getValue());
+            }
+        }
+    }
+
+    private static final class AttemptBuffer {
+
+        private final Map<Long, GradedAnswer> pending = new LinkedHashMap<>();
+        private boolean flushing;
+        private boolean closed;
+        private boolean retired;
+
+        synchronized boolean put(List<GradedAnswer> answers) {
+            if (retired) {
+                return false;
+            }
+            if (closed) {
+                throw new IllegalStateException("Quiz attempt has already been submitted");
+            }
+            for (GradedAnswer answer : answers) {
+                pending.put(answer.questionId(), answer);
+            }
+            return true;
+        }
+
+        /**
+         * @return the answers to write, an empty list if there is nothing new but the buffer
+         *         is still in use, or {@code null} if the buffer has been retired.
+         */
+        synchronized List<GradedAnswer> beginFlush() {
+            if (pending.isEmpty()) {
+                if (!closed) {
+                    retired = true;
+                    return null;
+                }
+                return List.of();
+            }
+            List<GradedAnswer> answers = new ArrayList<>(pending.values());
+            pending.clear();
+            flushing = true;
+            return answers;
+        }
+
+        synchronized void endFlush(List<GradedAnswer> failed) {
+            if (failed != null) {
+                // Keep newer answers that arrived during the flush
+                for (GradedAnswer answer : failed) {
+                    pending.putIfAbsent(answer.questionId(), answer);
+                }
+            }
+            flushing = false;
+            notifyAll();
+        }
+
+        /**
+         * @return the pending answers, or {@code null} if the buffer has been retired.
+         */
+        synchronized List<GradedAnswer> drain() {
+            if (retired) {
+                return null;
+            }
+            while (flushing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while submitting quiz attempt", e);
+                }
+            }
+            closed = true;
+            List<GradedAnswer> answers = new ArrayList<>(pending.values());
+            pending.clear();
+            return answers;
+        }
+
+        synchronized void reopen(List<GradedAnswer> answers) {
+            for (GradedAnswer answer : answers) {
+                pending.putIfAbsent(answer.questionId(), answer);
+            }
+            closed = false;
+        }
+    }
+}
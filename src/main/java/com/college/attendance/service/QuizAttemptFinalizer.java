@@ -0,0 +1,127 @@
+package com.college.attendance.service;
+
+import com.college.attendance.repository.QuizAttemptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Completes quiz attempts whose time has run out, whether or not the client ever submits.
+ * <p>
+ * Deadlines ({@code startTime + durationMinutes}, plus a grace period for submissions already
+ * in flight) are kept in a {@link QuizDeadlineWheel}, so finding due attempts never touches
+ * the database. Due attempts are completed in batches by a single conditional update that
+ * scores whatever answers have been saved for them. Open attempts are reloaded into the
+ * wheel at startup.
+ */
+@Service
+@Slf4j
+public class QuizAttemptFinalizer {
+
+    private static final String FINALIZE_SQL =
+            "UPDATE quiz_attempts a SET completed = TRUE, " +
+            "end_time = a.start_time + make_interval(mins => q.duration_minutes), " +
+            "score = COALESCE((SELECT SUM(qa.points_awarded) FROM quiz_answers qa WHERE qa.attempt_id = a.id), 0), " +
+            "max_score = COALESCE((SELECT SUM(qs.points) FROM quiz_answers qa " +
+            "JOIN questions qs ON qs.id = qa.question_id WHERE qa.attempt_id = a.id), 0) " +
+            "FROM quizzes q " +
+            "WHERE q.id = a.quiz_id AND a.id = ANY (?) AND a.completed = FALSE " +
+            "RETURNING a.quiz_id, a.student_id";
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAttemptRegistry quizAttemptRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final long graceSeconds;
+    private final int batchSize;
+
+    private final QuizDeadlineWheel wheel;
+
+    public QuizAttemptFinalizer(
+            QuizAttemptRepository quizAttemptRepository,
+            QuizAttemptRegistry quizAttemptRegistry,
+            JdbcTemplate jdbcTemplate,
+            @Value("${quiz.auto-submit.grace-seconds:60}") long graceSeconds,
+            @Value("${quiz.auto-submit.batch-size:500}") int batchSize) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizAttemptRegistry = quizAttemptRegistry;
+        this.jdbcTemplate = jdbcTemplate;
+        this.graceSeconds = graceSeconds;
+        this.batchSize = batchSize;
+        // One-second ticks, one hour per revolution
+        this.wheel = new QuizDeadlineWheel(1000, 3600, System.currentTimeMillis());
+    }
+
+    /**
+     * Loads every open attempt into the wheel; those already past their deadline are
+     * completed on the next tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        List<Object[]> openAttempts = quizAttemptRepository.findOpenAttemptDeadlines();
+        for (Object[] row : openAttempts) {
+            schedule((Long) row[0], ((LocalDateTime) row[1]).plusMinutes((Integer) row[2]));
+        }
+        log.info("Quiz auto-submit scheduler loaded {} open attempt(s).", openAttempts.size());
+    }
+
+    public void schedule(Long attemptId, LocalDateTime deadline) {
+        wheel.schedule(attemptId, deadline.plusSeconds(graceSeconds).atZone(ZONE).toInstant().toEpochMilli());
+    }
+
+    public void cancel(Long attemptId) {
+        wheel.cancel(attemptId);
+    }
+
+    /**
+     * Completes every attempt whose deadline has passed.
+     *
+     * @return the number of attempts completed.
+     */
+    public int finalizeDueAttempts() {
+        long now = System.currentTimeMillis();
+        List<Long> due = wheel.advance(now);
+        int finalized = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                finalized += finalizeBatch(batch);
+            } catch (RuntimeException e) {
+                // Put the batch back so it is retried rather than left open forever
+                log.error("Failed to auto-submit {} quiz attempt(s), retrying in {} s: {}",
+                        batch.size(), RETRY_DELAY_MILLIS / 1000, e.getMessage(), e);
+                for (Long attemptId : batch) {
+                    wheel.schedule(attemptId, now + RETRY_DELAY_MILLIS);
+                }
+            }
+        }
+        return finalized;
+    }
+
+    private int finalizeBatch(List<Long> attemptIds) {
+        int[] count = new int[1];
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(FINALIZE_SQL);
+                    Array ids = connection.createArrayOf("bigint", attemptIds.toArray());
+                    ps.setArray(1, ids);
+                    return ps;
+                },
+                rs -> {
+                    quizAttemptRegistry.markCompleted(rs.getLong(1), rs.getLong(2));
+                    count[0]++;
+                });
+        return count[0];
+    }
+}
@@ -0,0 +1,377 @@
+package com.college.attendance.service;
+
+import com.college.attendance.model.Quiz;
+import com.college.attendance.repository.QuizAttemptRepository;
+import com.college.attendance.repository.QuizRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * In-memory view of who has started or completed each quiz, used to absorb the burst of
+ * {@code /start} requests when a timed quiz opens.
+ * <p>
+ * A quiz's availability window and the state of every existing attempt are loaded with one
+ * query the first time the quiz is started. From then on "already started" and "already
+ * completed" are answered from memory, and new attempts are handed to a single worker that
+ * inserts whatever has queued up in one JDBC batch. Concurrent clicks from the same student
+ * share one pending attempt, and the partial unique index on active attempts in
+ * {@code quiz_attempts} remains the final guard. A start that times out waiting for its
+ * insert keeps its place, so the retry continues the same attempt instead of queueing a
+ * second one; only an insert that failed is replaced.
+ * <p>
+ * Like {@link ActiveSessionIndex}, this assumes a single application instance.
+ */
+@Component
+@Slf4j
+public class QuizAttemptRegistry {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_attempts (quiz_id, student_id, start_time, completed) VALUES (?, ?, ?, false)";
+
+    private final QuizRepository quizRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final long insertTimeoutMs;
+
+    private final ConcurrentMap<Long, QuizAttempts> quizzes = new ConcurrentHashMap<>();
+    // Quizzes being loaded, so a burst of first starts runs the load query once
+    private final ConcurrentMap<Long, CompletableFuture<QuizAttempts>> loading = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingStart> pending = new LinkedBlockingQueue<>();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public QuizAttemptRegistry(
+            QuizRepository quizRepository,
+            QuizAttemptRepository quizAttemptRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${quiz.attempt-registry.batch-size:200}") int batchSize,
+            @Value("${quiz.attempt-registry.insert-timeout-ms:10000}") long insertTimeoutMs) {
+        this.quizRepository = quizRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.insertTimeoutMs = insertTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runWorker, "quiz-attempt-inserts");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<PendingStart> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            insert(remaining);
+        }
+    }
+
+    /**
+     * Starts the student's attempt, or finds the one already in progress.
+     *
+     * @throws IllegalArgumentException if the quiz does not exist.
+     */
+    public StartResult start(Long quizId, Long studentId, LocalDateTime now) {
+        QuizAttempts attempts = attemptsFor(quizId);
+        QuizWindow window = attempts.window;
+        if (now.isBefore(window.startDate()) || now.isAfter(window.endDate())) {
+            return new StartResult(StartOutcome.NOT_AVAILABLE, null, null, null);
+        }
+
+        AttemptEntry fresh = new AttemptEntry(now);
+        AttemptEntry existing;
+        while ((existing = attempts.byStudent.putIfAbsent(studentId, fresh)) != null
+                && existing.attemptId.isCompletedExceptionally()) {
+            // The previous insert failed, so nothing is in the database; start over
+            attempts.byStudent.remove(studentId, existing);
+        }
+        if (existing != null) {
+            if (existing.completed) {
+                return new StartResult(StartOutcome.COMPLETED, null, null, null);
+            }
+            return new StartResult(StartOutcome.CONTINUED, existing.awaitId(insertTimeoutMs), existing.startTime,
+                    window.deadlineFor(existing.startTime));
+        }
+
+        // On timeout the entry stays: the queued insert still runs, and a retry continues it
+        pending.add(new PendingStart(quizId, studentId, fresh));
+        return new StartResult(StartOutcome.STARTED, fresh.awaitId(insertTimeoutMs), now, window.deadlineFor(now));
+    }
+
+    /**
+     * Finds the student's attempt in progress, without touching the database once the quiz
+     * has been loaded.
+     *
+     * @return the attempt, or empty if the student has no attempt in progress.
+     * @throws IllegalArgumentException if the quiz does not exist.
+     */
+    public Optional<ActiveAttempt> findActiveAttempt(Long quizId, Long studentId) {
+        QuizAttempts attempts = attemptsFor(quizId);
+        AttemptEntry entry = attempts.byStudent.get(studentId);
+        if (entry == null || entry.completed
+                || !entry.attemptId.isDone() || entry.attemptId.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(new ActiveAttempt(entry.attemptId.join(), entry.startTime, attempts.window.deadlineFor(entry.startTime)));
+    }
+
+    /**
+     * Records that the student's attempt has been submitted.
+     */
+    public void markCompleted(Long quizId, Long studentId) {
+        QuizAttempts attempts = quizzes.get(quizId);
+        if (attempts != null) {
+            AttemptEntry entry = attempts.byStudent.get(studentId);
+            if (entry != null) {
+                entry.completed = true;
+            }
+        }
+    }
+
+    /**
+     * Picks up new dates or duration after a quiz has been edited.
+     */
+    public void updateWindow(Quiz quiz) {
+        QuizAttempts attempts = quizzes.get(quiz.getId());
+        if (attempts != null) {
+            attempts.window = QuizWindow.of(quiz);
+        }
+    }
+
+    public void evict(Long quizId) {
+        quizzes.remove(quizId);
+    }
+
+    /**
+     * Forgets quizzes that closed more than an hour ago; they are reloaded on demand.
+     */
+    @Scheduled(fixedRate = 3600000)
+    public void evictClosedQuizzes() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
+        quizzes.values().removeIf(attempts -> attempts.window.closesAt().isBefore(cutoff));
+    }
+
+    /**
+     * Returns the quiz's attempts, loading them on first use. The query runs outside the map
+     * so it does not block other quizzes, and concurrent first starts share one load.
+     */
+    private QuizAttempts attemptsFor(Long quizId) {
+        QuizAttempts attempts = quizzes.get(quizId);
+        if (attempts != null) {
+            return attempts;
+        }
+        CompletableFuture<QuizAttempts> created = new CompletableFuture<>();
+        CompletableFuture<QuizAttempts> inProgress = loading.putIfAbsent(quizId, created);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            QuizAttempts loaded = load(quizId);
+            // Published by a load that finished just before this one started: keep that one
+            QuizAttempts published = quizzes.putIfAbsent(quizId, loaded);
+            attempts = published != null ? published : loaded;
+            created.complete(attempts);
+            return attempts;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(quizId, created);
+        }
+    }
+
+    private QuizAttempts load(Long quizId) {
+        Quiz quiz = quizRepository.findById(quizId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz not found"));
+        QuizAttempts attempts = new QuizAttempts(QuizWindow.of(quiz));
+        for (Object[] row : quizAttemptRepository.findAttemptStatesByQuizId(quizId)) {
+            Long studentId = (Long) row[0];
+            AttemptEntry entry = new AttemptEntry((LocalDateTime) row[2]);
+            entry.completed = (Boolean) row[3];
+            entry.attemptId.complete((Long) row[1]);
+            // An attempt in progress takes precedence over older completed ones
+            attempts.byStudent.merge(studentId, entry, (current, loaded) -> current.completed ? loaded : current);
+        }
+        return attempts;
+    }
+
+    private void runWorker() {
+        List<PendingStart> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(pending.take());
+                pending.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    pending.addAll(batch);
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<PendingStart> batch) {
+        try {
+            List<Long> ids = insertBatch(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).entry().attemptId.complete(ids.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).entry().attemptId.completeExceptionally(e);
+                return;
+            }
+            // Retry row by row so one rejected insert does not fail the rest of the batch
+            log.warn("Batch insert of {} quiz attempt(s) failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingStart start : batch) {
+                insert(List.of(start));
+            }
+        }
+    }
+
+    private List<Long> insertBatch(List<PendingStart> batch) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingStart start = batch.get(i);
+                        ps.setLong(1, start.quizId());
+                        ps.setLong(2, start.studentId());
+                        ps.setTimestamp(3, Timestamp.valueOf(start.entry().startTime));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated keys but got " + keys.size());
+        }
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (Map<String, Object> key : keys) {
+            ids.add(((Number) key.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    public enum StartOutcome {
+        STARTED,
+        CONTINUED,
+        COMPLETED,
+        NOT_AVAILABLE
+    }
+
+    /**
+     * @param deadline when the attempt's time runs out, or {@code null} if the quiz is untimed.
+     */
+    public record StartResult(StartOutcome outcome, Long attemptId, LocalDateTime startTime, LocalDateTime deadline) {
+    }
+
+    /**
+     * @param deadline when the attempt's time runs out, or {@code null} if the quiz is untimed.
+     */
+    public record ActiveAttempt(Long attemptId, LocalDateTime startTime, LocalDateTime deadline) {
+    }
+
+    private record QuizWindow(LocalDateTime startDate, LocalDateTime endDate, Integer durationMinutes) {
+
+        static QuizWindow of(Quiz quiz) {
+            return new QuizWindow(quiz.getStartDate(), quiz.getEndDate(), quiz.getDurationMinutes());
+        }
+
+        LocalDateTime deadlineFor(LocalDateTime startTime) {
+            return durationMinutes != null ? startTime.plusMinutes(durationMinutes) : null;
+        }
+
+        LocalDateTime closesAt() {
+            return durationMinutes != null ? endDate.plusMinutes(durationMinutes) : endDate;
+        }
+    }
+
+    private record PendingStart(Long quizId, Long studentId, AttemptEntry entry) {
+    }
+
+    private static final class QuizAttempts {
+
+        private final ConcurrentMap<Long, AttemptEntry> byStudent = new ConcurrentHashMap<>();
+        private volatile QuizWindow window;
+
+        QuizAttempts(QuizWindow window) {
+            this.window = window;
+        }
+    }
+
+    private static final class AttemptEntry {
+
+        private final CompletableFuture<Long> attemptId = new CompletableFuture<>();
+        private final LocalDateTime startTime;
+        private volatile boolean completed;
+
+        AttemptEntry(LocalDateTime startTime) {
+            this.startTime = startTime;
+        }
+
+        Long awaitId(long timeoutMs) {
+            try {
+                return attemptId.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while starting quiz attempt", e);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("Quiz attempt is still being started, please try again", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to start quiz attempt", e);
+            }
+        }
+    }
+}
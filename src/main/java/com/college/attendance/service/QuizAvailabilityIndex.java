@@ -0,0 +1,127 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.QuizSummaryDto;
+import com.college.attendance.repository.CourseRepository;
+import com.college.attendance.repository.QuizRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Cached per-course index of quiz availability windows.
+ * <p>
+ * The start and end dates of a course's quizzes split the timeline into segments, and each
+ * segment (and each breakpoint itself) knows which quizzes are open during it. "Which
+ * quizzes are available now" is then a binary search over the breakpoints. A course's
+ * index is built from one projection query and dropped whenever one of its quizzes is
+ * created, updated or deleted; the TTL only bounds staleness from other instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuizAvailabilityIndex {
+
+    private final QuizRepository quizRepository;
+    private final CourseRepository courseRepository;
+
+    private final Cache<Long, CourseWindows> courses = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    /**
+     * Quizzes of the course that have started and not yet ended ({@code startDate < now < endDate}),
+     * ordered by start date.
+     *
+     * @throws IllegalArgumentException if the course does not exist.
+     */
+    public List<QuizSummaryDto> findAvailable(Long courseId, LocalDateTime now) {
+        return courses.get(courseId, this::load).availableAt(now);
+    }
+
+    public void invalidate(Long courseId) {
+        courses.invalidate(courseId);
+    }
+
+    private CourseWindows load(Long courseId) {
+        List<QuizSummaryDto> quizzes = quizRepository.findSummariesByCourseId(courseId);
+        if (quizzes.isEmpty() && !courseRepository.existsById(courseId)) {
+            throw new IllegalArgumentException("Course not found");
+        }
+        return CourseWindows.of(quizzes);
+    }
+
+    /**
+     * Breakpoints {@code b[0] < b[1] < ... < b[m-1]}, with the quizzes open exactly at each
+     * breakpoint and those open strictly between it and the next one.
+     */
+    static final class CourseWindows {
+
+        private final LocalDateTime[] breakpoints;
+        private final List<List<QuizSummaryDto>> atBreakpoint;
+        private final List<List<QuizSummaryDto>> afterBreakpoint;
+
+        private CourseWindows(LocalDateTime[] breakpoints,
+                              List<List<QuizSummaryDto>> atBreakpoint,
+                              List<List<QuizSummaryDto>> afterBreakpoint) {
+            this.breakpoints = breakpoints;
+            this.atBreakpoint = atBreakpoint;
+            this.afterBreakpoint = afterBreakpoint;
+        }
+
+        /**
+         * @param quizzes the course's quizzes, ordered by start date.
+         */
+        static CourseWindows of(List<QuizSummaryDto> quizzes) {
+            TreeSet<LocalDateTime> points = new TreeSet<>();
+            for (QuizSummaryDto quiz : quizzes) {
+                points.add(quiz.getStartDate());
+                points.add(quiz.getEndDate());
+            }
+            LocalDateTime[] breakpoints = points.toArray(new LocalDateTime[0]);
+
+            List<List<QuizSummaryDto>> at = new ArrayList<>(breakpoints.length);
+            List<List<QuizSummaryDto>> after = new ArrayList<>(breakpoints.length);
+            for (int i = 0; i < breakpoints.length; i++) {
+                at.add(new ArrayList<>());
+                after.add(new ArrayList<>());
+            }
+            for (QuizSummaryDto quiz : quizzes) {
+                int first = Arrays.binarySearch(breakpoints, quiz.getStartDate());
+                int last = Arrays.binarySearch(breakpoints, quiz.getEndDate());
+                // Open on (start, end): the segment after the start up to the end's breakpoint
+                for (int i = first; i < last; i++) {
+                    after.get(i).add(quiz);
+                    if (i > first) {
+                        at.get(i).add(quiz);
+                    }
+                }
+            }
+            return new CourseWindows(breakpoints, freeze(at), freeze(after));
+        }
+
+        List<QuizSummaryDto> availableAt(LocalDateTime now) {
+            int index = Arrays.binarySearch(breakpoints, now);
+            if (index >= 0) {
+                return atBreakpoint.get(index);
+            }
+            int before = -index - 2;
+            return before >= 0 ? afterBreakpoint.get(before) : List.of();
+        }
+
+        private static List<List<QuizSummaryDto>> freeze(List<List<QuizSummaryDto>> lists) {
+            List<List<QuizSummaryDto>> frozen = new ArrayList<>(lists.size());
+            for (List<QuizSummaryDto> list : lists) {
+                frozen.add(List.copyOf(list));
+            }
+            return List.copyOf(frozen);
+        }
+    }
+}
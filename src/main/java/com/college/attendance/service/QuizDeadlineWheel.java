@@ -0,0 +1,97 @@
+package com.college.attendance.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel of quiz attempt deadlines.
+ * <p>
+ * Time is divided into ticks of {@code tickMillis}, and each deadline is placed in the slot
+ * for its tick modulo the wheel size. Advancing the wheel only visits the slots for the
+ * ticks that have passed; entries more than one revolution away simply stay in their slot
+ * until their round comes up. Scheduling and cancelling are O(1).
+ */
+final class QuizDeadlineWheel {
+
+    private final long tickMillis;
+    private final List<List<Entry>> slots;
+    private final Map<Long, Long> deadlineTicks = new HashMap<>();
+
+    private long currentTick;
+
+    QuizDeadlineWheel(long tickMillis, int size, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules (or reschedules) an attempt. Deadlines already in the past fire on the next
+     * {@link #advance}.
+     */
+    synchronized void schedule(long attemptId, long deadlineMillis) {
+        long tick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        deadlineTicks.put(attemptId, tick);
+        slots.get(slotOf(tick)).add(new Entry(attemptId, tick));
+    }
+
+    /**
+     * Forgets an attempt; its slot entry is discarded when the slot is next visited.
+     */
+    synchronized void cancel(long attemptId) {
+        deadlineTicks.remove(attemptId);
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}.
+     *
+     * @return the attempts whose deadline has passed.
+     */
+    synchronized List<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Long> due = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return due;
+        }
+        // After a long pause every slot is due for a visit, but only once
+        long ticks = Math.min(targetTick - currentTick, slots.size());
+        for (long t = targetTick - ticks + 1; t <= targetTick; t++) {
+            Iterator<Entry> it = slots.get(slotOf(t)).iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                Long scheduled = deadlineTicks.get(entry.attemptId());
+                if (scheduled == null || scheduled != entry.tick()) {
+                    // Cancelled or rescheduled
+                    it.remove();
+                } else if (entry.tick() <= targetTick) {
+                    it.remove();
+                    deadlineTicks.remove(entry.attemptId());
+                    due.add(entry.attemptId());
+                }
+            }
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private record Entry(long attemptId, long tick) {
+    }
+}
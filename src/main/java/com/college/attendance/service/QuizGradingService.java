@@ -0,0 +1,239 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.QuizAnswerDto;
+import com.college.attendance.model.QuizAttempt;
+import com.college.attendance.repository.QuestionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grades quiz submissions in memory against the quiz's answer key and stores the answers
+ * with a single batched upsert.
+ * <p>
+ * Each quiz's answer key is compiled once into a {@link CompiledAnswerKey} and cached until
+ * the quiz is updated or deleted; no per-answer lookups are made, and the response is built
+ * from the graded results rather than by reading the answers back.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizGradingService {
+
+    private static final String UPSERT_ANSWER_SQL =
+            "INSERT INTO quiz_answers (attempt_id, question_id, selected_option_id, text_answer, points_awarded, graded) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (attempt_id, question_id) DO UPDATE SET " +
+            "selected_option_id = EXCLUDED.selected_option_id, text_answer = EXCLUDED.text_answer, " +
+            "points_awarded = EXCLUDED.points_awarded, graded = EXCLUDED.graded";
+
+    private static final String SAVED_ANSWERS_SQL =
+            "SELECT question_id, selected_option_id, text_answer FROM quiz_answers WHERE attempt_id = ? ORDER BY id";
+
+    private static final RowMapper<QuizAnswerDto> SAVED_ANSWER_MAPPER = (rs, rowNum) -> new QuizAnswerDto(
+            rs.getLong("question_id"), rs.getObject("selected_option_id", Long.class), rs.getString("text_answer"));
+
+    private static final String COMPLETE_ATTEMPT_SQL =
+            "UPDATE quiz_attempts SET end_time = ?, completed = TRUE, score = ?, max_score = ? " +
+            "WHERE id = ? AND completed = FALSE";
+
+    private final QuestionRepository questionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final QuizAnswerAutosaveBuffer autosaveBuffer;
+
+    // The key is fixed once a quiz has attempts, since updateQuiz then refuses question edits
+    private final Cache<Long, CompiledAnswerKey> answerKeys = Caffeine.newBuilder()
+            .maximumSize(500)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    /**
+     * Grades the attempt's answers, stores them and completes the attempt.
+     * <p>
+     * Answers already autosaved for the attempt, whether written or still buffered, are
+     * merged with the submitted ones, the submitted answer winning for any question
+     * answered twice. The attempt is completed with a conditional update, so a submission
+     * that loses the race with {@link QuizAttemptFinalizer} is rolled back instead of
+     * overwriting it.
+     *
+     * @return every answer of the attempt, with its ID.
+     * @throws IllegalStateException if the attempt has already been completed.
+     */
+    @Transactional
+    public GradingResult submitAttempt(QuizAttempt attempt, List<QuizAnswerDto> submittedAnswers, LocalDateTime submittedAt) {
+        Long attemptId = attempt.getId();
+        List<GradedAnswer> buffered = autosaveBuffer.drain(attemptId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    autosaveBuffer.discard(attemptId);
+                } else {
+                    autosaveBuffer.restore(attemptId, buffered);
+                }
+            }
+        });
+
+        Map<Long, QuizAnswerDto> answers = new LinkedHashMap<>();
+        for (QuizAnswerDto saved : jdbcTemplate.query(SAVED_ANSWERS_SQL, SAVED_ANSWER_MAPPER, attemptId)) {
+            answers.put(saved.getQuestionId(), saved);
+        }
+        for (GradedAnswer answer : buffered) {
+            answers.put(answer.questionId(),
+                    new QuizAnswerDto(answer.questionId(), answer.selectedOptionId(), answer.textAnswer()));
+        }
+        if (submittedAnswers != null) {
+            for (QuizAnswerDto answer : submittedAnswers) {
+                answers.put(answer.getQuestionId(), answer);
+            }
+        }
+
+        GradingResult result = grade(attempt.getQuiz().getId(), new ArrayList<>(answers.values()));
+        List<GradedAnswer> saved = upsertAnswers(attemptId, result.answers());
+
+        // Update the attempt directly rather than through the entity, which would also
+        // risk cascading to the answers collection
+        int updated = jdbcTemplate.update(COMPLETE_ATTEMPT_SQL,
+                Timestamp.valueOf(submittedAt), result.score(), result.maxScore(), attemptId);
+        if (updated == 0) {
+            throw new IllegalStateException("Quiz attempt has already been submitted");
+        }
+
+        return new GradingResult(saved, result.score(), result.maxScore());
+    }
+
+    /**
+     * Grades a partial set of answers and buffers them for the attempt; they are written by
+     * {@link QuizAnswerAutosaveBuffer} and picked up again on submission.
+     *
+     * @return the number of answers accepted.
+     * @throws IllegalArgumentException if an answer refers to a question not in the quiz.
+     */
+    public int autosave(Long quizId, Long attemptId, List<QuizAnswerDto> answers) {
+        GradingResult result = grade(quizId, answers);
+        autosaveBuffer.save(attemptId, result.answers());
+        return result.answers().size();
+    }
+
+    /**
+     * Grades answers against the quiz's compiled answer key. Only the first grading of a
+     * quiz loads its questions; later ones are array lookups.
+     */
+    public GradingResult grade(Long quizId, List<QuizAnswerDto> submittedAnswers) {
+        if (submittedAnswers == null) {
+            submittedAnswers = List.of();
+        }
+        CompiledAnswerKey key = answerKeys.get(quizId,
+                id -> CompiledAnswerKey.compile(questionRepository.findWithOptionsByQuizId(id)));
+
+        List<GradedAnswer> graded = new ArrayList<>(submittedAnswers.size());
+        int score = 0;
+        int maxScore = 0;
+        for (QuizAnswerDto answerDto : submittedAnswers) {
+            int index = answerDto.getQuestionId() != null ? key.indexOf(answerDto.getQuestionId()) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Question not found");
+            }
+            long questionId = key.questionId(index);
+            int points = key.points(index);
+
+            GradedAnswer answer;
+            if (key.type(index) == CompiledAnswerKey.MULTIPLE_CHOICE) {
+                Long optionId = answerDto.getSelectedOptionId();
+                if (optionId != null) {
+                    // Only options of this question count; anything else is graded as a wrong answer
+                    boolean valid = key.hasOption(index, optionId);
+                    int awarded = valid && key.isCorrectOption(index, optionId) ? points : 0;
+                    answer = new GradedAnswer(null, questionId, valid ? optionId : null, null, awarded, true);
+                } else {
+                    answer = new GradedAnswer(null, questionId, null, null, null, false);
+                }
+            } else if (key.type(index) == CompiledAnswerKey.TEXT_ANSWER) {
+                // Auto-grade text answers if they match exactly
+                int awarded = key.isCorrectText(index, answerDto.getTextAnswer()) ? points : 0;
+                answer = new GradedAnswer(null, questionId, null, answerDto.getTextAnswer(), awarded, true);
+            } else {
+                answer = new GradedAnswer(null, questionId, null, null, null, false);
+            }
+
+            graded.add(answer);
+            if (answer.pointsAwarded() != null) {
+                score += answer.pointsAwarded();
+            }
+            maxScore += points;
+        }
+        return new GradingResult(graded, score, maxScore);
+    }
+
+    /**
+     * Drops the cached answer key; called whenever a quiz's questions may have changed.
+     */
+    public void evictAnswerKey(Long quizId) {
+        answerKeys.invalidate(quizId);
+    }
+
+    private List<GradedAnswer> upsertAnswers(Long attemptId, List<GradedAnswer> answers) {
+        if (answers.isEmpty()) {
+            return answers;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(UPSERT_ANSWER_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        GradedAnswer answer = answers.get(i);
+                        ps.setLong(1, attemptId);
+                        ps.setLong(2, answer.questionId());
+                        ps.setObject(3, answer.selectedOptionId(), Types.BIGINT);
+                        ps.setString(4, answer.textAnswer());
+                        ps.setObject(5, answer.pointsAwarded(), Types.INTEGER);
+                        ps.setBoolean(6, answer.graded());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return answers.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<GradedAnswer> saved = new ArrayList<>(answers.size());
+        for (int i = 0; i < answers.size(); i++) {
+            Long id = i < keys.size() ? ((Number) keys.get(i).get("id")).longValue() : null;
+            saved.add(answers.get(i).withId(id));
+        }
+        return saved;
+    }
+
+    public record GradedAnswer(Long id, Long questionId, Long selectedOptionId, String textAnswer,
+                               Integer pointsAwarded, boolean graded) {
+
+        GradedAnswer withId(Long newId) {
+            return new GradedAnswer(newId, questionId, selectedOptionId, textAnswer, pointsAwarded, graded);
+        }
+    }
+
+    public record GradingResult(List<GradedAnswer> answers, int score, int maxScore) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.QuizStatisticsDto;
+import com.college.attendance.dto.QuizStatisticsDto.HistogramBucket;
+import com.college.attendance.dto.QuizStatisticsDto.QuestionStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes quiz statistics with SQL aggregates over {@code quiz_attempts} and
+ * {@code quiz_answers}, so no attempt or student is loaded into memory.
+ */
+@Service
+@RequiredArgsConstructor
+public class QuizStatisticsService {
+
+    private static final int HISTOGRAM_BUCKETS = 10;
+
+    // AVG and stddev_pop of an integer column are numeric, which the driver will not read as Double
+    private static final String SUMMARY_SQL =
+            "SELECT COUNT(*), AVG(score)::float8, " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY score), " +
+            "stddev_pop(score)::float8, MIN(score), MAX(score) " +
+            "FROM quiz_attempts WHERE quiz_id = ? AND completed = TRUE AND score IS NOT NULL";
+
+    // width_bucket puts exactly 100% into an overflow bucket, which is folded into the last one
+    private static final String HISTOGRAM_SQL =
+            "SELECT LEAST(width_bucket(score * 100.0 / max_score, 0, 100, " + HISTOGRAM_BUCKETS + "), " +
+            HISTOGRAM_BUCKETS + ") AS bucket, COUNT(*) " +
+            "FROM quiz_attempts WHERE quiz_id = ? AND completed = TRUE AND score IS NOT NULL AND max_score > 0 " +
+            "GROUP BY bucket";
+
+    private static final String QUESTIONS_SQL =
+            "SELECT q.id, q.text, COUNT(a.id), COUNT(a.id) FILTER (WHERE a.graded AND a.points_awarded > 0) " +
+            "FROM questions q " +
+            "LEFT JOIN quiz_answers a ON a.question_id = q.id AND a.attempt_id IN (" +
+            "SELECT id FROM quiz_attempts WHERE quiz_id = ? AND completed = TRUE) " +
+            "WHERE q.quiz_id = ? " +
+            "GROUP BY q.id, q.text, q.\"order\" " +
+            "ORDER BY q.\"order\" NULLS LAST, q.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public QuizStatisticsDto getStatistics(Long quizId) {
+        QuizStatisticsDto statistics = jdbcTemplate.queryForObject(SUMMARY_SQL, (rs, rowNum) -> {
+            QuizStatisticsDto dto = new QuizStatisticsDto();
+            dto.setQuizId(quizId);
+            dto.setSubmissionCount(rs.getLong(1));
+            dto.setMeanScore(rs.getObject(2, Double.class));
+            dto.setMedianScore(rs.getObject(3, Double.class));
+            dto.setStandardDeviation(rs.getObject(4, Double.class));
+            dto.setMinScore(rs.getObject(5, Integer.class));
+            dto.setMaxScore(rs.getObject(6, Integer.class));
+            return dto;
+        }, quizId);
+
+        long[] counts = new long[HISTOGRAM_BUCKETS];
+        jdbcTemplate.query(HISTOGRAM_SQL, rs -> {
+            int bucket = rs.getInt(1);
+            if (bucket >= 1) {
+                counts[bucket - 1] += rs.getLong(2);
+            }
+        }, quizId);
+        int width = 100 / HISTOGRAM_BUCKETS;
+        List<HistogramBucket> histogram = new ArrayList<>(HISTOGRAM_BUCKETS);
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram.add(new HistogramBucket(i * width, (i + 1) * width, counts[i]));
+        }
+        statistics.setHistogram(histogram);
+
+        statistics.setQuestions(jdbcTemplate.query(QUESTIONS_SQL, (rs, rowNum) -> {
+            long answers = rs.getLong(3);
+            long correct = rs.getLong(4);
+            return new QuestionStatistics(rs.getLong(1), rs.getString(2), answers, correct,
+                    answers > 0 ? (double) correct / answers : null);
+        }, quizId, quizId));
+
+        return statistics;
+    }
+}
@@ -0,0 +1,71 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.QuizSubmissionExportRow;
+import com.college.attendance.repository.QuizAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a quiz's completed submissions as CSV straight from a database cursor, so memory
+ * use does not grow with the size of the class.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizSubmissionExportService {
+
+    private static final String[] HEADERS =
+            {"Student ID", "Student Name", "Email", "Submission Date", "Score", "Max Score", "Percentage"};
+
+    private final QuizAttemptRepository quizAttemptRepository;
+
+    /**
+     * Writes the CSV to {@code out} and closes it.
+     */
+    @Transactional(readOnly = true)
+    public void writeSubmissionsCsv(Long quizId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<QuizSubmissionExportRow> rows = quizAttemptRepository.streamSubmissionExportRowsByQuizId(quizId);
+             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(HEADERS))) {
+
+            Iterator<QuizSubmissionExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                QuizSubmissionExportRow row = iterator.next();
+                csvPrinter.printRecord(
+                        row.getStudentId(),
+                        row.getStudentName(),
+                        row.getEmail(),
+                        row.getSubmittedAt(),
+                        row.getScore(),
+                        row.getMaxScore(),
+                        percentage(row.getScore(), row.getMaxScore())
+                );
+            }
+            csvPrinter.flush();
+        } catch (IOException e) {
+            log.error("Error generating submissions CSV for quiz {}: {}", quizId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    private static String percentage(Integer score, Integer maxScore) {
+        if (score == null || maxScore == null || maxScore == 0) {
+            return "N/A";
+        }
+        return String.format(Locale.ROOT, "%.2f%%", score * 100.0 / maxScore);
+    }
+}
@@ -0,0 +1,22 @@
+package com.college.attendance.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded files end up. Implementations receive a file that has already been
+ * written to local disk, so they can stream it instead of holding it in memory.
+ */
+public interface StorageBackend {
+
+    /**
+     * Stores the file's contents.
+     *
+     * @param file             a local file the caller deletes afterwards; implementations must copy it.
+     * @param originalFilename the client's name for the file.
+     * @param contentType      the client-declared content type.
+     * @return the URL the stored file is served from.
+     * @throws IOException If the file could not be stored.
+     */
+    String store(Path file, String originalFilename, String contentType) throws IOException;
+}
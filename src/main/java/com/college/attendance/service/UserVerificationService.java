@@ -2,6 +2,7 @@ package com.college.attendance.service;
 
 import com.college.attendance.model.User;
 import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,6 +19,7 @@ public class UserVerificationService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final AuthenticatedPrincipalCache principalCache;
     
     // Store last code sent time for rate limiting
     private final Map<String, LocalDateTime> lastCodeSentTime = new ConcurrentHashMap<>();
@@ -33,6 +35,7 @@ public class UserVerificationService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
     }
     
     public void initiatePasswordReset(String email) {
@@ -69,6 +72,7 @@ public class UserVerificationService {
         user.setResetCodeExpiry(null);
         failedAttempts.remove(email); // Reset failed attempts on success
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
     }
     
     public void verifyResetCode(String email, String resetCode) {
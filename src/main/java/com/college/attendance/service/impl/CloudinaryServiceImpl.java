@@ -3,27 +3,46 @@ package com.college.attendance.service.impl;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import com.college.attendance.service.CloudinaryService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CloudinaryServiceImpl implements CloudinaryService {
 
     private final Cloudinary cloudinary;
+    private final long largeUploadThresholdBytes;
+
+    public CloudinaryServiceImpl(
+            Cloudinary cloudinary,
+            @Value("${cloudinary.large-upload-threshold-bytes:104857600}") long largeUploadThresholdBytes) {
+        this.cloudinary = cloudinary;
+        this.largeUploadThresholdBytes = largeUploadThresholdBytes;
+    }
 
     @Override
     public String uploadFile(MultipartFile file) throws IOException {
+        return uploadFileInternal(file, uniquePublicId(file.getOriginalFilename()));
+    }
+
+    @Override
+    public String uploadFile(Path file, String originalFilename) throws IOException {
+        String name = originalFilename != null ? originalFilename : file.getFileName().toString();
+        return upload(file.toFile(), name, uniquePublicId(name));
+    }
+
+    private static String uniquePublicId(String filename) {
         // Generate a unique public ID within an 'uploads' folder structure
         // This helps organize files in Cloudinary and prevents overwriting files with the same original name.
-        String originalFilename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "file";
+        String originalFilename = filename != null ? filename : "file";
 
         // Separate the base name from the extension so we don't include the extension twice.
         // For example, for "cover_3.pdf" we want:
@@ -45,8 +64,7 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         String sanitizedBaseName = baseName.replaceAll("[^a-zA-Z0-9_\\-]", "_");
 
         // Build the publicId without the extension; Cloudinary will add it automatically in the secure_url
-        String publicId = "uploads/" + UUID.randomUUID().toString() + "_" + sanitizedBaseName;
-        return uploadFileInternal(file, publicId);
+        return "uploads/" + UUID.randomUUID().toString() + "_" + sanitizedBaseName;
     }
 
     @Override
@@ -64,20 +82,30 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File to upload cannot be null or empty");
         }
+        return upload(file.getBytes(), file.getOriginalFilename(), publicId);
+    }
 
-        log.info("Uploading file '{}' to Cloudinary with public ID '{}'", file.getOriginalFilename(), publicId);
+    /**
+     * @param source the file contents: a byte array, or a {@link java.io.File} that the SDK streams.
+     */
+    private String upload(Object source, String originalFilename, String publicId) throws IOException {
+        log.info("Uploading file '{}' to Cloudinary with public ID '{}'", originalFilename, publicId);
 
         try {
             // Decide on the correct Cloudinary resource_type. Images should stay as "image", everything else goes to "raw".
-            String lowerName = file.getOriginalFilename().toLowerCase();
+            String lowerName = originalFilename.toLowerCase();
             boolean isImage = lowerName.endsWith(".jpg") || lowerName.endsWith(".jpeg") || lowerName.endsWith(".png") || lowerName.endsWith(".gif") || lowerName.endsWith(".bmp") || lowerName.endsWith(".webp") || lowerName.endsWith(".svg");
 
-            // Upload the file bytes
-            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
+            Map<?, ?> options = ObjectUtils.asMap(
                     "public_id", publicId,
                     "overwrite", true, // Allow overwriting if the same public_id is used (UUID makes this unlikely for the first method)
                     "resource_type", isImage ? "image" : "raw" // Use raw for non-image files (PDF, DOCX, ZIP …)
-            ));
+            );
+
+            // A single upload request is capped by Cloudinary, so larger files are sent in chunks
+            Map<?, ?> uploadResult = source instanceof File file && file.length() > largeUploadThresholdBytes
+                    ? cloudinary.uploader().uploadLarge(file, options)
+                    : cloudinary.uploader().upload(source, options);
 
             // Get the secure URL (HTTPS) of the uploaded file
             String secureUrl = (String) uploadResult.get("secure_url");
@@ -89,11 +117,11 @@ public class CloudinaryServiceImpl implements CloudinaryService {
             log.info("File uploaded successfully. Secure URL: {}", secureUrl);
             return secureUrl;
         } catch (IOException e) {
-            log.error("Failed to upload file '{}' to Cloudinary: {}", file.getOriginalFilename(), e.getMessage(), e);
+            log.error("Failed to upload file '{}' to Cloudinary: {}", originalFilename, e.getMessage(), e);
             throw new IOException("Failed to upload file to Cloudinary. Reason: " + e.getMessage(), e);
         } catch (Exception e) {
             // Catch potential runtime exceptions from Cloudinary SDK
-            log.error("Unexpected error during Cloudinary upload for file '{}': {}", file.getOriginalFilename(), e.getMessage(), e);
+            log.error("Unexpected error during Cloudinary upload for file '{}': {}", originalFilename, e.getMessage(), e);
             throw new IOException("Unexpected error uploading file to Cloudinary. Reason: " + e.getMessage(), e);
         }
     }
@@ -0,0 +1,26 @@
+package com.college.attendance.service.impl;
+
+import com.college.attendance.service.CloudinaryService;
+import com.college.attendance.service.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Stores uploads in Cloudinary, streaming them from the local spool file.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryStorageBackend implements StorageBackend {
+
+    private final CloudinaryService cloudinaryService;
+
+    @Override
+    public String store(Path file, String originalFilename, String contentType) throws IOException {
+        return cloudinaryService.uploadFile(file, originalFilename);
+    }
+}
@@ -0,0 +1,26 @@
+package com.college.attendance.service.impl;
+
+import com.college.attendance.service.FileStorageService;
+import com.college.attendance.service.StorageBackend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Stores uploads in the local upload directory, from where {@code /api/files} serves them.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalStorageBackend implements StorageBackend {
+
+    private final FileStorageService fileStorageService;
+
+    @Override
+    public String store(Path file, String originalFilename, String contentType) throws IOException {
+        return fileStorageService.storeFile(file, originalFilename, contentType).getFileUrl();
+    }
+}
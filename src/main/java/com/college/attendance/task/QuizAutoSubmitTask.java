@@ -0,0 +1,28 @@
+package com.college.attendance.task;
+
+import com.college.attendance.service.QuizAttemptFinalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuizAutoSubmitTask {
+
+    private final QuizAttemptFinalizer quizAttemptFinalizer;
+
+    // Advances the deadline wheel once per second; no database access unless attempts are due
+    @Scheduled(fixedRate = 1000)
+    public void finalizeExpiredAttempts() {
+        try {
+            int finalizedCount = quizAttemptFinalizer.finalizeDueAttempts();
+            if (finalizedCount > 0) {
+                log.info("Auto-submitted {} expired quiz attempt(s).", finalizedCount);
+            }
+        } catch (Exception e) {
+            log.error("Error during scheduled auto-submit of expired quiz attempts: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.college.attendance.task;
+
+import com.college.attendance.service.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class StoredFileCleanupTask {
+
+    private final FileStorageService fileStorageService;
+    private final Duration grace;
+
+    public StoredFileCleanupTask(
+            FileStorageService fileStorageService,
+            @Value("${storage.dedup.grace-hours:24}") long graceHours) {
+        this.fileStorageService = fileStorageService;
+        this.grace = Duration.ofHours(graceHours);
+    }
+
+    // Uploads get grace-hours to be attached to an assignment, submission or question before they count as unused
+    @Scheduled(fixedDelayString = "${storage.dedup.cleanup-interval-ms:21600000}", initialDelay = 600000)
+    public void deleteUnreferencedFiles() {
+        try {
+            int deleted = fileStorageService.deleteUnreferencedFiles(grace);
+            if (deleted > 0) {
+                log.info("Deleted {} unreferenced stored file(s).", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Error during cleanup of unreferenced stored files: {}", e.getMessage(), e);
+        }
+    }
+}
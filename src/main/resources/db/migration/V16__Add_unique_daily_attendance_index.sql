@@ -0,0 +1,31 @@
+-- The check-in day is recorded explicitly, in the application's attendance.checkin.zone,
+-- so the unique index agrees with the in-memory check-in ledger whatever the server zone.
+-- Existing rows keep the day their timestamp falls on.
+ALTER TABLE attendance_records ADD COLUMN IF NOT EXISTS check_in_date DATE;
+UPDATE attendance_records SET check_in_date = CAST("timestamp" AS DATE) WHERE check_in_date IS NULL;
+ALTER TABLE attendance_records ALTER COLUMN check_in_date SET NOT NULL;
+
+-- Same-day duplicates are moved, not dropped: everything but the earliest record per
+-- student, course and day is copied to attendance_records_duplicates for review first
+CREATE TABLE IF NOT EXISTS attendance_records_duplicates (
+    LIKE attendance_records,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO attendance_records_duplicates (id, user_id, course_id, "timestamp", verified, check_in_date)
+SELECT a.id, a.user_id, a.course_id, a."timestamp", a.verified, a.check_in_date
+FROM attendance_records a
+WHERE EXISTS (
+    SELECT 1 FROM attendance_records b
+    WHERE b.user_id = a.user_id
+      AND b.course_id = a.course_id
+      AND b.check_in_date = a.check_in_date
+      AND b.id < a.id);
+
+DELETE FROM attendance_records a
+USING attendance_records_duplicates d
+WHERE a.id = d.id;
+
+-- One check-in per student, course and day
+CREATE UNIQUE INDEX IF NOT EXISTS uq_attendance_user_course_day
+    ON attendance_records (user_id, course_id, check_in_date);
@@ -0,0 +1,17 @@
+-- Existing data is changed here: when a student has several attempts in progress for the
+-- same quiz, all but the earliest are force-completed (end_time = start_time) so the index
+-- below can be built. Their rows and answers are kept; nothing is deleted.
+UPDATE quiz_attempts a
+SET completed = TRUE,
+    end_time = a.start_time
+FROM quiz_attempts b
+WHERE a.quiz_id = b.quiz_id
+  AND a.student_id = b.student_id
+  AND a.completed = FALSE
+  AND b.completed = FALSE
+  AND a.id > b.id;
+
+-- At most one attempt in progress per student and quiz
+CREATE UNIQUE INDEX IF NOT EXISTS uq_quiz_attempts_active
+    ON quiz_attempts (quiz_id, student_id)
+    WHERE completed = FALSE;
@@ -0,0 +1,10 @@
+-- Keep only the latest answer when a question was answered twice in one attempt
+DELETE FROM quiz_answers a
+USING quiz_answers b
+WHERE a.attempt_id = b.attempt_id
+  AND a.question_id = b.question_id
+  AND a.id < b.id;
+
+-- One answer per question and attempt; autosave and submission upsert on this key
+CREATE UNIQUE INDEX IF NOT EXISTS uq_quiz_answers_attempt_question
+    ON quiz_answers (attempt_id, question_id);
@@ -0,0 +1,14 @@
+-- Keyset pagination of assignment and submission listings seeks on (owner, sort key, id)
+CREATE INDEX IF NOT EXISTS idx_assignments_course_due_date
+    ON assignments (course_id, due_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_assignment_submissions_assignment_date
+    ON assignment_submissions (assignment_id, submission_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_assignment_submissions_student_date
+    ON assignment_submissions (student_id, submission_date, id);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_assignments_course;
+DROP INDEX IF EXISTS idx_assignment_submissions_assignment;
+DROP INDEX IF EXISTS idx_assignment_submissions_student;
@@ -0,0 +1,10 @@
+-- Metadata of files kept in local storage, recorded once at upload time so that serving
+-- a file does not have to probe it
+CREATE TABLE IF NOT EXISTS stored_files (
+    id BIGSERIAL PRIMARY KEY,
+    storage_name VARCHAR(255) NOT NULL UNIQUE,
+    original_name VARCHAR(255),
+    content_type VARCHAR(255) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,18 @@
+-- Content-addressed storage: each distinct content is kept once, as a file_blobs row keyed
+-- by its SHA-256. Every upload still gets its own stored_files row, with a random name and
+-- the uploader's original name and content type, pointing at its blob by hash; several
+-- uploads may share a blob. The cleanup task deletes uploads that nothing references, then
+-- blobs that no upload uses.
+CREATE TABLE IF NOT EXISTS file_blobs (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    storage_name VARCHAR(255) NOT NULL UNIQUE,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_used_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+ALTER TABLE stored_files ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE stored_files ADD CONSTRAINT fk_stored_files_file_blob
+    FOREIGN KEY (content_hash) REFERENCES file_blobs (content_hash);
+
+CREATE INDEX IF NOT EXISTS idx_stored_files_content_hash ON stored_files (content_hash);
@@ -0,0 +1,38 @@
+package com.college.attendance.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteRangeTests {
+
+    private static final long SIZE = 1000;
+
+    @Test
+    void testParse_BoundedOpenAndSuffixRanges() {
+        assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", SIZE));
+        assertEquals(new ByteRange(100, 999), ByteRange.parse("bytes=100-", SIZE));
+        assertEquals(new ByteRange(950, 999), ByteRange.parse("bytes=-50", SIZE));
+    }
+
+    @Test
+    void testParse_ClampsToFileSize() {
+        assertEquals(new ByteRange(990, 999), ByteRange.parse("bytes=990-2000", SIZE));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", SIZE));
+    }
+
+    @Test
+    void testParse_UnsatisfiableRanges() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", SIZE));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", SIZE));
+    }
+
+    @Test
+    void testParse_IgnoredHeaders() {
+        assertNull(ByteRange.parse(null, SIZE));
+        assertNull(ByteRange.parse("items=0-5", SIZE));
+        assertNull(ByteRange.parse("bytes=5-2", SIZE));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", SIZE));
+        assertNull(ByteRange.parse("bytes=abc", SIZE));
+    }
+}
@@ -0,0 +1,191 @@
+package com.college.attendance.controller;
+
+import com.college.attendance.model.StoredFile;
+import com.college.attendance.repository.StoredFileRepository;
+import com.college.attendance.service.ContentAddressedFileStore;
+import com.college.attendance.service.FileStorageService;
+import com.college.attendance.service.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class FileAccessControllerTests {
+
+    private static final String NAME = "3c9e1f52-7d1a-4f0b-9a55-0d6a8f1e2b44.txt";
+    private static final String HASH = "0a1b2c";
+    private static final String BODY = "0123456789";
+    private static final String ETAG = "\"" + HASH + "\"";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 14, 12, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private Path uploadDir;
+    private Path blob;
+    private FileStorageService fileStorageService;
+    private MockMvc mockMvc;
+    private String lastModified;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploadDir = Files.createDirectories(tempDir.resolve("uploads"));
+        blob = Files.createDirectories(uploadDir.resolve(ContentAddressedFileStore.BLOB_DIRECTORY)).resolve(HASH);
+        Files.writeString(blob, BODY, StandardCharsets.UTF_8);
+
+        StoredFileRepository storedFileRepository = mock(StoredFileRepository.class);
+        when(storedFileRepository.findByStorageName(anyString())).thenReturn(Optional.empty());
+        when(storedFileRepository.findByStorageName(NAME)).thenReturn(Optional.of(StoredFile.builder()
+                .storageName(NAME)
+                .originalName("Lecture notes.txt")
+                .contentType("text/plain")
+                .sizeBytes(BODY.length())
+                .createdAt(CREATED_AT)
+                .contentHash(HASH)
+                .build()));
+        ContentAddressedFileStore contentAddressedFileStore = mock(ContentAddressedFileStore.class);
+        when(contentAddressedFileStore.locate(HASH)).thenReturn(Optional.of(blob));
+        fileStorageService = new FileStorageService(storedFileRepository,
+                contentAddressedFileStore, mock(ImageDerivativeService.class));
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileAccessController(fileStorageService)).build();
+        lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                CREATED_AT.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    void testGetFile_ServesWholeFileWithValidators() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY))
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, lastModified))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("notes.txt")));
+    }
+
+    @Test
+    void testGetFile_NotModified() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void testGetFile_Range() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "3"))
+                .andExpect(content().string("234"));
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("789"));
+    }
+
+    @Test
+    void testGetFile_UnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetFile_IfRange() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("01"));
+        mockMvc.perform(get("/api/files/" + NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, lastModified))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("01"));
+
+        // The client's copy is out of date, so the range no longer applies
+        mockMvc.perform(get("/api/files/" + NAME)
+                        .header(HttpHeaders.RANGE, "bytes=0-1")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string(BODY));
+    }
+
+    @Test
+    void testHead_SendsHeadersOnly() throws Exception {
+        mockMvc.perform(head("/api/files/" + NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "10"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetFile_HandsRangeToSendfile() throws Exception {
+        mockMvc.perform(get("/api/files/" + NAME)
+                        .requestAttr("org.apache.tomcat.sendfile.support", true)
+                        .header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename",
+                        blob.toString()))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.start", 2L))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 5L))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetFile_MissingFile() throws Exception {
+        mockMvc.perform(get("/api/files/missing.txt"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testResolve_StaysInsideUploadDirectory() throws Exception {
+        Files.writeString(tempDir.resolve("secret.txt"), "secret", StandardCharsets.UTF_8);
+
+        assertTrue(fileStorageService.resolve(NAME).isPresent());
+        assertTrue(fileStorageService.resolve("../secret.txt").isEmpty());
+        assertTrue(fileStorageService.resolve("professor-id/../../secret.txt").isEmpty());
+        assertTrue(fileStorageService.resolve(tempDir.resolve("secret.txt").toString()).isEmpty());
+        assertTrue(fileStorageService.resolve("").isEmpty());
+
+        // Shared contents are only reachable through an upload's own name
+        assertEquals(blob, fileStorageService.resolve(NAME).get().path());
+        assertTrue(fileStorageService.resolve(HASH).isEmpty());
+        assertTrue(fileStorageService.resolve(ContentAddressedFileStore.BLOB_DIRECTORY + "/" + HASH).isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.college.attendance.controller;
+
+import com.college.attendance.dto.QuizAnswerDto;
+import com.college.attendance.dto.QuizDto;
+import com.college.attendance.model.Course;
+import com.college.attendance.model.Question;
+import com.college.attendance.model.QuestionType;
+import com.college.attendance.model.Quiz;
+import com.college.attendance.model.Role;
+import com.college.attendance.model.User;
+import com.college.attendance.repository.CourseRepository;
+import com.college.attendance.repository.QuestionRepository;
+import com.college.attendance.repository.QuizAnswerRepository;
+import com.college.attendance.repository.QuizAttemptRepository;
+import com.college.attendance.repository.QuizRepository;
+import com.college.attendance.repository.UserRepository;
+import com.college.attendance.security.AuthenticatedUser;
+import com.college.attendance.service.QuizAnswerAutosaveBuffer;
+import com.college.attendance.service.QuizAttemptFinalizer;
+import com.college.attendance.service.QuizAttemptRegistry;
+import com.college.attendance.service.QuizAvailabilityIndex;
+import com.college.attendance.service.QuizGradingService;
+import com.college.attendance.service.QuizStatisticsService;
+import com.college.attendance.service.QuizSubmissionExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QuizControllerTests {
+
+    private static final Long QUIZ_ID = 7L;
+    private static final Long QUESTION_ID = 70L;
+
+    private QuestionRepository questionRepository;
+    private QuizGradingService quizGradingService;
+    private QuizController quizController;
+    private AuthenticatedUser professor;
+    private Quiz quiz;
+
+    @BeforeEach
+    void setUp() {
+        User creator = new User();
+        creator.setId(1L);
+        creator.setRole(Role.PROFESSOR);
+        professor = AuthenticatedUser.from(creator);
+        Course course = new Course();
+        course.setId(3L);
+        quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setCreator(creator);
+        quiz.setCourse(course);
+
+        QuizRepository quizRepository = mock(QuizRepository.class);
+        when(quizRepository.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+        when(quizRepository.save(quiz)).thenReturn(quiz);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(1L)).thenReturn(creator);
+        QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+        when(quizAttemptRepository.findByQuiz(quiz)).thenReturn(List.of());
+
+        questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findWithOptionsByQuizId(QUIZ_ID)).thenReturn(List.of(textQuestion("Paris")));
+        quizGradingService = new QuizGradingService(
+                questionRepository, mock(JdbcTemplate.class), mock(QuizAnswerAutosaveBuffer.class));
+
+        quizController = new QuizController(quizRepository, questionRepository, mock(CourseRepository.class),
+                userRepository, quizAttemptRepository, mock(QuizAnswerRepository.class), quizGradingService,
+                mock(QuizAttemptRegistry.class), mock(QuizAttemptFinalizer.class), mock(QuizAvailabilityIndex.class),
+                mock(QuizStatisticsService.class), mock(QuizSubmissionExportService.class));
+    }
+
+    @Test
+    void testUpdateQuiz_EvictsCachedAnswerKey() {
+        assertEquals(1, score("Paris"));
+        when(questionRepository.findWithOptionsByQuizId(QUIZ_ID)).thenReturn(List.of(textQuestion("Rome")));
+        // Still graded against the cached key
+        assertEquals(1, score("Paris"));
+
+        QuizDto quizDto = new QuizDto();
+        quizDto.setTitle("Quiz");
+        quizDto.setStartDate(LocalDateTime.now());
+        quizDto.setEndDate(LocalDateTime.now().plusDays(1));
+        quizDto.setDurationMinutes(30);
+        assertEquals(HttpStatus.OK, quizController.updateQuiz(QUIZ_ID, quizDto, professor).getStatusCode());
+
+        assertEquals(0, score("Paris"));
+        assertEquals(1, score("Rome"));
+        verify(questionRepository, times(2)).findWithOptionsByQuizId(QUIZ_ID);
+    }
+
+    @Test
+    void testDeleteQuiz_EvictsCachedAnswerKey() {
+        assertEquals(1, score("Paris"));
+        when(questionRepository.findWithOptionsByQuizId(QUIZ_ID)).thenReturn(List.of());
+
+        assertEquals(HttpStatus.OK, quizController.deleteQuiz(QUIZ_ID, professor).getStatusCode());
+
+        // The deleted quiz's questions no longer grade
+        assertThrows(IllegalArgumentException.class, () -> score("Paris"));
+        verify(questionRepository, times(2)).findWithOptionsByQuizId(QUIZ_ID);
+    }
+
+    private int score(String answer) {
+        return quizGradingService.grade(QUIZ_ID, List.of(new QuizAnswerDto(QUESTION_ID, null, answer))).score();
+    }
+
+    private static Question textQuestion(String correctAnswer) {
+        Question question = new Question();
+        question.setId(QUESTION_ID);
+        question.setType(QuestionType.TEXT_ANSWER);
+        question.setPoints(1);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+}
@@ -0,0 +1,59 @@
+package com.college.attendance.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTests {
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        for (LocalDateTime timestamp : new LocalDateTime[]{
+                LocalDateTime.of(2026, 10, 17, 12, 0),
+                LocalDateTime.of(2026, 10, 17, 12, 0, 5),
+                LocalDateTime.of(2026, 10, 17, 12, 0, 5, 120_000_000),
+                LocalDateTime.of(2026, 10, 17, 12, 0, 5, 123_456_000),
+                LocalDateTime.of(2026, 10, 17, 12, 0, 0, 1)}) {
+            KeysetCursor cursor = new KeysetCursor(timestamp, 42L);
+
+            String token = cursor.encode();
+
+            assertEquals(cursor, KeysetCursor.decode(token));
+            assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        }
+        assertEquals(KeysetCursor.START, KeysetCursor.decode(KeysetCursor.START.encode()));
+    }
+
+    @Test
+    void testDecode_MissingCursorStartsAtTheBeginning() {
+        assertEquals(KeysetCursor.START, KeysetCursor.decode(null));
+        assertEquals(KeysetCursor.START, KeysetCursor.decode(""));
+        assertEquals(KeysetCursor.START, KeysetCursor.decode("  "));
+    }
+
+    @Test
+    void testDecode_RejectsTamperedTokens() {
+        String token = new KeysetCursor(LocalDateTime.of(2026, 10, 17, 12, 0, 5, 123_456_000), 42L).encode();
+
+        assertInvalid(token + "!");
+        assertInvalid(token.substring(0, token.length() / 2));
+        assertInvalid("not a cursor");
+        assertInvalid(encode("2026-10-17T12:00:05"));
+        assertInvalid(encode("2026-10-17T12:00:05|forty-two"));
+        assertInvalid(encode("2026-13-17T12:00:05|42"));
+        assertInvalid(encode("|42"));
+    }
+
+    private static void assertInvalid(String token) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token));
+        assertEquals("Invalid cursor", e.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,83 @@
+package com.college.attendance.filter;
+
+import com.college.attendance.filter.RateLimitingFilter.RouteClass;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitingFilterTests {
+
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitingFilter(new ConcurrentMapCacheManager("buckets"), new ObjectMapper(),
+                new SimpleMeterRegistry(), 2, 2, 2, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testClassify() {
+        assertEquals(RouteClass.AUTH, RateLimitingFilter.classify(request("POST", "/api/auth/login", "10.0.0.1")));
+        assertEquals(RouteClass.CHECK_IN, RateLimitingFilter.classify(request("POST", "/api/attendance/record", "10.0.0.1")));
+        assertEquals(RouteClass.UPLOAD, RateLimitingFilter.classify(request("POST", "/api/upload/async", "10.0.0.1")));
+        assertEquals(RouteClass.READ, RateLimitingFilter.classify(request("GET", "/api/upload/async/abc", "10.0.0.1")));
+        assertEquals(RouteClass.WRITE, RateLimitingFilter.classify(request("PUT", "/api/upload/sessions/abc", "10.0.0.1")));
+        assertEquals(RouteClass.READ, RateLimitingFilter.classify(request("GET", "/api/courses", "10.0.0.1")));
+        assertEquals(RouteClass.WRITE, RateLimitingFilter.classify(request("DELETE", "/api/courses/1", "10.0.0.1")));
+
+        MockHttpServletRequest withContextPath = request("POST", "/api/api/auth/login", "10.0.0.1");
+        withContextPath.setContextPath("/api");
+        assertEquals(RouteClass.AUTH, RateLimitingFilter.classify(withContextPath));
+    }
+
+    @Test
+    void testBucketsArePerClientAndRouteClass() throws Exception {
+        assertEquals(200, send("POST", "/api/auth/login", "10.0.0.1"));
+        assertEquals(200, send("POST", "/api/auth/login", "10.0.0.1"));
+        assertEquals(429, send("POST", "/api/auth/login", "10.0.0.1"));
+
+        assertEquals(200, send("POST", "/api/auth/login", "10.0.0.2"));
+        assertEquals(200, send("GET", "/api/courses", "10.0.0.1"));
+    }
+
+    @Test
+    void testForwardedForHeaderDoesNotGiveAFreshBucket() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, send("POST", "/api/auth/login", "10.0.0.1"));
+        }
+
+        MockHttpServletRequest spoofed = request("POST", "/api/auth/login", "10.0.0.1");
+        spoofed.addHeader("X-Forwarded-For", "203.0.113.7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(spoofed, response, new MockFilterChain());
+
+        assertEquals(429, response.getStatus());
+        assertNotNull(response.getHeader("Retry-After"));
+    }
+
+    private int send(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, remoteAddr), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,151 @@
+package com.college.attendance.repository;
+
+import com.college.attendance.dto.KeysetCursor;
+import com.college.attendance.dto.SubmissionSummaryDto;
+import com.college.attendance.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pages over {@code (submissionDate, id)}: rows sharing a submission date are split
+ * across pages by ID, so walking the pages returns every row exactly once.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+public class AssignmentSubmissionPagingTests {
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AssignmentSubmissionRepository submissionRepository;
+
+    private Assignment assignment;
+    private User student;
+    private final List<Long> expectedForAssignment = new ArrayList<>();
+    private final List<Long> expectedForStudent = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User professor = user("paging_prof", Role.PROFESSOR);
+        student = user("paging_student", Role.STUDENT);
+        User otherStudent = user("paging_other_student", Role.STUDENT);
+
+        Course course = new Course();
+        course.setCourseCode("PAGE101");
+        course.setCourseName("Paging");
+        course.setStartTime(LocalTime.of(9, 0));
+        course.setEndTime(LocalTime.of(10, 0));
+        entityManager.persist(course);
+
+        assignment = assignment(course, professor);
+        Assignment otherAssignment = assignment(course, professor);
+
+        // Five submissions share one timestamp, with sub-second precision, between an earlier and a later one
+        LocalDateTime shared = LocalDateTime.of(2026, 10, 17, 12, 0, 0, 123_456_000);
+        Long earlier = submission(assignment, otherStudent, shared.minusNanos(1_000));
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(submission(assignment, i % 2 == 0 ? student : otherStudent, shared));
+        }
+        Long later = submission(assignment, student, shared.plusNanos(1_000));
+        Long otherAssignmentTied = submission(otherAssignment, student, shared);
+
+        expectedForAssignment.add(earlier);
+        expectedForAssignment.addAll(tied);
+        expectedForAssignment.add(later);
+
+        // The other assignment's submission was stored last but sorts before the later one by date
+        expectedForStudent.add(tied.get(0));
+        expectedForStudent.add(tied.get(2));
+        expectedForStudent.add(tied.get(4));
+        expectedForStudent.add(otherAssignmentTied);
+        expectedForStudent.add(later);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFindSummariesByAssignmentIdAfter_PagesThroughTiesWithoutSkipsOrRepeats() {
+        List<Long> seen = walk((after, limit) -> submissionRepository.findSummariesByAssignmentIdAfter(
+                assignment.getId(), after.timestamp(), after.id(), limit));
+
+        assertEquals(expectedForAssignment, seen);
+    }
+
+    @Test
+    void testFindSummariesByStudentIdAfter_PagesThroughTiesWithoutSkipsOrRepeats() {
+        List<Long> seen = walk((after, limit) -> submissionRepository.findSummariesByStudentIdAfter(
+                student.getId(), after.timestamp(), after.id(), limit));
+
+        assertEquals(expectedForStudent, seen);
+    }
+
+    /**
+     * Follows the pages as a client would, passing each page's last key back through its token.
+     */
+    private List<Long> walk(BiFunction<KeysetCursor, Limit, List<SubmissionSummaryDto>> query) {
+        List<Long> seen = new ArrayList<>();
+        KeysetCursor after = KeysetCursor.START;
+        for (int page = 0; page < 10; page++) {
+            List<SubmissionSummaryDto> rows = query.apply(after, Limit.of(PAGE_SIZE));
+            assertTrue(rows.size() <= PAGE_SIZE);
+            rows.forEach(row -> seen.add(row.getId()));
+            if (rows.size() < PAGE_SIZE) {
+                return seen;
+            }
+            SubmissionSummaryDto last = rows.get(rows.size() - 1);
+            after = KeysetCursor.decode(new KeysetCursor(last.getSubmissionDate(), last.getId()).encode());
+        }
+        fail("Paging did not finish");
+        return seen;
+    }
+
+    private User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setFullName(username);
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Assignment assignment(Course course, User creator) {
+        Assignment assignment = new Assignment();
+        assignment.setTitle("Assignment");
+        assignment.setCourse(course);
+        assignment.setCreator(creator);
+        assignment.setDueDate(LocalDateTime.of(2026, 10, 20, 23, 59));
+        entityManager.persist(assignment);
+        return assignment;
+    }
+
+    private Long submission(Assignment assignment, User student, LocalDateTime submissionDate) {
+        AssignmentSubmission submission = new AssignmentSubmission();
+        submission.setAssignment(assignment);
+        submission.setStudent(student);
+        submission.setSubmissionDate(submissionDate);
+        entityManager.persist(submission);
+        return submission.getId();
+    }
+}
@@ -0,0 +1,158 @@
+package com.college.attendance.repository;
+
+import com.college.attendance.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Statement-count check for the professor's submission review: the attempt and all of its
+ * answers, questions and options must load in two statements however many questions the
+ * quiz has.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class QuizSubmissionFetchTests {
+
+    private static final Logger log = LoggerFactory.getLogger(QuizSubmissionFetchTests.class);
+
+    private static final int QUESTIONS = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private QuizAnswerRepository quizAnswerRepository;
+
+    private Long attemptId;
+
+    @BeforeEach
+    void setUp() {
+        User professor = user("prof", Role.PROFESSOR);
+        User student = user("student", Role.STUDENT);
+
+        Course course = new Course();
+        course.setCourseCode("CS101");
+        course.setCourseName("Intro");
+        course.setStartTime(LocalTime.of(9, 0));
+        course.setEndTime(LocalTime.of(10, 0));
+        entityManager.persist(course);
+
+        Quiz quiz = new Quiz();
+        quiz.setTitle("Quiz");
+        quiz.setStartDate(LocalDateTime.now().minusDays(1));
+        quiz.setEndDate(LocalDateTime.now().plusDays(1));
+        quiz.setDurationMinutes(30);
+        quiz.setCourse(course);
+        quiz.setCreator(professor);
+        entityManager.persist(quiz);
+
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuiz(quiz);
+        attempt.setStudent(student);
+        attempt.setStartTime(LocalDateTime.now().minusMinutes(20));
+        attempt.setEndTime(LocalDateTime.now());
+        attempt.setCompleted(true);
+        entityManager.persist(attempt);
+
+        for (int i = 0; i < QUESTIONS; i++) {
+            Question question = new Question();
+            question.setQuiz(quiz);
+            question.setText("Question " + i);
+            question.setType(QuestionType.MULTIPLE_CHOICE);
+            question.setOrder(i);
+            List<QuestionOption> options = new ArrayList<>();
+            for (int j = 0; j < 4; j++) {
+                QuestionOption option = new QuestionOption();
+                option.setQuestion(question);
+                option.setText("Option " + j);
+                option.setCorrect(j == 0);
+                option.setOrder(j);
+                options.add(option);
+            }
+            question.setOptions(options);
+            entityManager.persist(question);
+
+            QuizAnswer answer = new QuizAnswer();
+            answer.setAttempt(attempt);
+            answer.setQuestion(question);
+            answer.setSelectedOption(options.get(i % 4));
+            answer.setPointsAwarded(i % 4 == 0 ? 1 : 0);
+            answer.setGraded(true);
+            entityManager.persist(answer);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        attemptId = attempt.getId();
+    }
+
+    @Test
+    void testSubmissionReviewLoadsInTwoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        QuizAttempt attempt = quizAttemptRepository.findWithStudentAndQuizById(attemptId).orElseThrow();
+        assertNotNull(attempt.getStudent().getFullName());
+        assertNotNull(attempt.getQuiz().getCreator().getId());
+
+        List<QuizAnswer> answers = quizAnswerRepository.findWithQuestionsByAttemptId(attemptId);
+        assertEquals(QUESTIONS, answers.size());
+
+        // Touch everything the review payload reads
+        int correctSelections = 0;
+        for (QuizAnswer answer : answers) {
+            Question question = answer.getQuestion();
+            assertNotNull(question.getText());
+            QuestionOption correct = question.getOptions().stream()
+                    .filter(QuestionOption::isCorrect)
+                    .findFirst()
+                    .orElseThrow();
+            if (answer.getSelectedOption().getId().equals(correct.getId())) {
+                correctSelections++;
+            }
+            assertNotNull(answer.getSelectedOption().getText());
+        }
+        assertEquals(QUESTIONS / 4 + (QUESTIONS % 4 > 0 ? 1 : 0), correctSelections);
+
+        long statements = statistics.getPrepareStatementCount();
+        log.info("questions={} statements={} queryExecutionMaxTimeMs={}",
+                QUESTIONS, statements, statistics.getQueryExecutionMaxTime());
+        assertEquals(2, statements);
+    }
+
+    private User user(String username, Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setFullName(username);
+        user.setEmail(username + "@example.com");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+}
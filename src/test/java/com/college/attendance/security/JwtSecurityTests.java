@@ -23,8 +23,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import io.jsonwebtoken.security.SignatureException;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -75,7 +77,8 @@ public class JwtSecurityTests {
         
         // Setup mocks
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(jwtTokenUtil.extractUsername(validToken)).thenReturn("testuser");
+        when(jwtTokenUtil.parseAndValidate(validToken))
+            .thenReturn(new ValidatedToken("testuser", "token-1", "ROLE_STUDENT", new Date(System.currentTimeMillis() + 60_000)));
         
         // Mock userDetails
         userDetails = org.springframework.security.core.userdetails.User.builder()
@@ -85,10 +88,9 @@ public class JwtSecurityTests {
             .build();
             
         when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
-        when(jwtTokenUtil.validateToken(eq(validToken), any(UserDetails.class))).thenReturn(true);
         
         // Create the filter
-        jwtRequestFilter = new JwtRequestFilter(userDetailsService, jwtTokenUtil, userRepository);
+        jwtRequestFilter = new JwtRequestFilter(jwtTokenUtil, new AuthenticatedPrincipalCache(userRepository, 300, 1000));
     }
 
     @Test
@@ -170,8 +172,7 @@ public class JwtSecurityTests {
         MockFilterChain filterChain = new MockFilterChain();
         
         // Mock token validation failure
-        when(jwtTokenUtil.extractUsername("invalid.token")).thenReturn("testuser");
-        when(jwtTokenUtil.validateToken(eq("invalid.token"), any(UserDetails.class))).thenReturn(false);
+        when(jwtTokenUtil.parseAndValidate("invalid.token")).thenThrow(new SignatureException("Invalid signature"));
         
         // Test
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
@@ -0,0 +1,105 @@
+package com.college.attendance.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtTokenUtilTests {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenUtilTests.class);
+
+    private JwtTokenUtil jwtTokenUtil;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret",
+                "testSecretKeyWhichIsLongEnoughForHs512SigningInUnitTestsOnly-0123456789abcdef");
+        ReflectionTestUtils.setField(jwtTokenUtil, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "verifiedCacheSize", 100L);
+        jwtTokenUtil.init();
+
+        userDetails = User.withUsername("testuser").password("password").authorities("ROLE_STUDENT").build();
+    }
+
+    @Test
+    void testParseAndValidate_ReturnsClaims() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+
+        ValidatedToken validated = jwtTokenUtil.parseAndValidate(token);
+
+        assertEquals("testuser", validated.username());
+        assertEquals("ROLE_STUDENT", validated.role());
+        assertNotNull(validated.tokenId());
+        assertFalse(validated.isExpired());
+        assertSame(validated, jwtTokenUtil.parseAndValidate(token));
+    }
+
+    @Test
+    void testParseAndValidate_RejectsTamperedToken() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtTokenUtil.parseAndValidate(tampered));
+    }
+
+    @Test
+    void testParseAndValidate_RejectsExpiredToken() {
+        ReflectionTestUtils.setField(jwtTokenUtil, "jwtExpiration", -1_000L);
+        String token = jwtTokenUtil.generateToken(userDetails);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtTokenUtil.parseAndValidate(token));
+    }
+
+    @Test
+    void testParseAndValidate_IdentifiesTokenOwner() {
+        UserDetails otherUser = User.withUsername("otheruser").password("password").authorities("ROLE_PROFESSOR").build();
+        String token = jwtTokenUtil.generateToken(userDetails);
+        String otherToken = jwtTokenUtil.generateToken(otherUser);
+
+        assertEquals("testuser", jwtTokenUtil.parseAndValidate(token).username());
+        ValidatedToken other = jwtTokenUtil.parseAndValidate(otherToken);
+        assertEquals("otheruser", other.username());
+        assertEquals("ROLE_PROFESSOR", other.role());
+        // Cached entries stay with their own token
+        assertEquals("testuser", jwtTokenUtil.parseAndValidate(token).username());
+    }
+
+    /**
+     * Throughput measurement: compares the filter's previous path, which verified the token
+     * three times per request, with the parse-once path that answers repeated tokens from the
+     * digest cache. Run with {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void testCachedValidationThroughput() {
+        String token = jwtTokenUtil.generateToken(userDetails);
+        int iterations = 20_000;
+
+        long began = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (int parse = 0; parse < 3; parse++) {
+                assertNotNull(ReflectionTestUtils.invokeMethod(jwtTokenUtil, "extractAllClaims", token));
+            }
+        }
+        long uncached = (System.nanoTime() - began) / iterations;
+
+        began = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertEquals("testuser", jwtTokenUtil.parseAndValidate(token).username());
+        }
+        long cached = (System.nanoTime() - began) / iterations;
+
+        log.info("avgNanosPerRequest threeParses={} parseOnceCached={}", uncached, cached);
+    }
+}
@@ -0,0 +1,151 @@
+package com.college.attendance.service;
+
+import com.college.attendance.repository.AttendanceSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ActiveSessionIndexTests {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveSessionIndexTests.class);
+
+    private ActiveSessionIndex index;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        index = new ActiveSessionIndex(mock(AttendanceSessionRepository.class));
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void testFindSessionId_MatchesCourseAndCode() {
+        index.put(1L, "ABC123", 10L, now.plusMinutes(5));
+
+        assertEquals(10L, index.findSessionId(1L, "ABC123", now).orElseThrow());
+        assertTrue(index.findSessionId(2L, "ABC123", now).isEmpty());
+        assertTrue(index.findSessionId(1L, "XYZ999", now).isEmpty());
+    }
+
+    @Test
+    void testFindSessionId_ExpiredEntryIsEvicted() {
+        index.put(1L, "ABC123", 10L, now.minusSeconds(1));
+
+        assertTrue(index.findSessionId(1L, "ABC123", now).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testEvictExpired() {
+        index.put(1L, "AAAAAA", 10L, now.minusMinutes(1));
+        index.put(1L, "BBBBBB", 11L, now.plusMinutes(1));
+
+        assertEquals(1, index.evictExpired(now));
+        assertEquals(11L, index.findSessionId(1L, "BBBBBB", now).orElseThrow());
+    }
+
+    /**
+     * Lookups of live codes must keep resolving, and expired codes must never resolve,
+     * while other threads register new sessions and evict expired ones.
+     */
+    @Test
+    void testConcurrentLookupsDuringRegistrationAndEviction() throws Exception {
+        int courses = 50;
+        for (long courseId = 1; courseId <= courses; courseId++) {
+            index.put(courseId, "LIVE" + courseId, courseId * 100, now.plusMinutes(15));
+        }
+
+        int threads = 8;
+        int rounds = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < rounds; i++) {
+                    long courseId = (i % courses) + 1;
+                    assertEquals(courseId * 100, index.findSessionId(courseId, "LIVE" + courseId, now).orElseThrow());
+                    assertTrue(index.findSessionId(courseId, "OLD" + i, now).isEmpty());
+                }
+                return null;
+            }));
+        }
+        results.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < rounds; i++) {
+                long courseId = (i % courses) + 1;
+                index.put(courseId, "OLD" + i, -1L, now.minusSeconds(1));
+                index.evictExpired(now);
+            }
+            return null;
+        }));
+
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        index.evictExpired(now);
+        assertEquals(courses, index.size());
+    }
+
+    /**
+     * Load measurement of check-in lookups as concurrency grows; logs the average cost per
+     * lookup at each thread count. Run with {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void testConcurrentLookupsScale() throws Exception {
+        int courses = 50;
+        for (long courseId = 1; courseId <= courses; courseId++) {
+            index.put(courseId, "CODE" + courseId, courseId * 100, now.plusMinutes(15));
+        }
+
+        int lookupsPerThread = 20_000;
+        for (int threads : new int[]{1, 4, 16, 64}) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int hits = 0;
+                    for (int i = 0; i < lookupsPerThread; i++) {
+                        long courseId = (i % courses) + 1;
+                        if (index.findSessionId(courseId, "CODE" + courseId, now).isPresent()) {
+                            hits++;
+                        }
+                    }
+                    return hits;
+                }));
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(lookupsPerThread, result.get(30, TimeUnit.SECONDS));
+            }
+            long elapsed = System.nanoTime() - began;
+            executor.shutdown();
+
+            long lookups = (long) threads * lookupsPerThread;
+            log.info("threads={} lookups={} avgNanosPerLookup={}", threads, lookups, elapsed / lookups);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.college.attendance.service;
+
+import com.college.attendance.config.PostgresJdbcTest;
+import com.college.attendance.dto.BulkGradingResultDto;
+import com.college.attendance.dto.BulkGradingResultDto.ItemResult;
+import com.college.attendance.dto.SubmissionGradeDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssignmentGradingServiceTests extends PostgresJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AssignmentGradingService assignmentGradingService;
+    private Long professorId;
+    private Long otherProfessorId;
+    private Long studentId;
+    private Long courseId;
+
+    @BeforeEach
+    void setUp() {
+        assignmentGradingService = new AssignmentGradingService(jdbcTemplate);
+        professorId = insertUser("grading_professor", "PROFESSOR");
+        otherProfessorId = insertUser("grading_other_professor", "PROFESSOR");
+        studentId = insertUser("grading_student", "STUDENT");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO courses (course_code, course_name, start_time, end_time) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, "GRD101", "Grading", LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    @Test
+    void testGradeSubmissions_ReportsEachRejectedItem() {
+        Long owned = insertAssignment(professorId);
+        Long foreign = insertAssignment(otherProfessorId);
+        Long first = insertSubmission(owned);
+        Long second = insertSubmission(owned);
+        Long foreignSubmission = insertSubmission(foreign);
+        Long unknown = second + 1000;
+
+        BulkGradingResultDto result = assignmentGradingService.gradeSubmissions(professorId, List.of(
+                new SubmissionGradeDto(first, 80, "Good"),
+                new SubmissionGradeDto(unknown, 50, null),
+                new SubmissionGradeDto(foreignSubmission, 70, null),
+                new SubmissionGradeDto(first, 10, "Duplicate"),
+                new SubmissionGradeDto(second, 95, null)));
+
+        assertEquals(2, result.getGraded());
+        assertEquals(3, result.getFailed());
+        List<ItemResult> items = result.getResults();
+        assertTrue(items.get(0).isSuccess());
+        assertEquals("Submission not found", items.get(1).getError());
+        assertEquals("You can only grade submissions for assignments you created", items.get(2).getError());
+        assertEquals("Submission is listed more than once", items.get(3).getError());
+        assertTrue(items.get(4).isSuccess());
+
+        Map<String, Object> firstRow = submission(first);
+        assertEquals(80, firstRow.get("score"));
+        assertEquals("Good", firstRow.get("feedback"));
+        assertEquals(true, firstRow.get("graded"));
+        assertNotNull(firstRow.get("graded_date"));
+        assertEquals(95, submission(second).get("score"));
+        Map<String, Object> foreignRow = submission(foreignSubmission);
+        assertNull(foreignRow.get("score"));
+        assertEquals(false, foreignRow.get("graded"));
+    }
+
+    @Test
+    void testGradeSubmissions_ChecksOwnershipPerAssignment() {
+        Long firstAssignment = insertAssignment(professorId);
+        Long secondAssignment = insertAssignment(professorId);
+        Long foreign = insertAssignment(otherProfessorId);
+        Long a = insertSubmission(firstAssignment);
+        Long b = insertSubmission(firstAssignment);
+        Long c = insertSubmission(secondAssignment);
+        Long d = insertSubmission(foreign);
+
+        BulkGradingResultDto result = assignmentGradingService.gradeSubmissions(professorId, List.of(
+                new SubmissionGradeDto(a, 60, null),
+                new SubmissionGradeDto(d, 60, null),
+                new SubmissionGradeDto(b, 70, null),
+                new SubmissionGradeDto(c, 90, null)));
+
+        assertEquals(3, result.getGraded());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertEquals(90, submission(c).get("score"));
+        assertNull(submission(d).get("score"));
+
+        BulkGradingResultDto other = assignmentGradingService.gradeSubmissions(otherProfessorId, List.of(
+                new SubmissionGradeDto(a, 0, null),
+                new SubmissionGradeDto(d, 75, null)));
+
+        assertEquals(1, other.getGraded());
+        assertFalse(other.getResults().get(0).isSuccess());
+        assertEquals(60, submission(a).get("score"));
+        assertEquals(75, submission(d).get("score"));
+    }
+
+    private Long insertUser(String username, String role) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, full_name, email, role) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, username, "password", username, username + "@example.com", role);
+    }
+
+    private Long insertAssignment(Long creatorId) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO assignments (title, course_id, creator_id, due_date, created_at) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, "Assignment", courseId, creatorId, now.plusDays(7), now);
+    }
+
+    private Long insertSubmission(Long assignmentId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO assignment_submissions (assignment_id, student_id, submission_date) VALUES (?, ?, ?) RETURNING id",
+                Long.class, assignmentId, studentId, LocalDateTime.now());
+    }
+
+    private Map<String, Object> submission(Long id) {
+        return jdbcTemplate.queryForMap(
+                "SELECT score, feedback, graded, graded_date FROM assignment_submissions WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,86 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.UploadStatusDto;
+import com.college.attendance.dto.UploadStatusDto.Status;
+import com.college.attendance.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncUploadServiceTests {
+
+    @TempDir
+    Path spoolDir;
+
+    private InMemoryStorageBackend backend;
+    private AsyncUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new InMemoryStorageBackend();
+        service = new AsyncUploadService(backend, spoolDir.toString(), 2, 10, 60);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void testSubmit_CompletesWithBackendUrl() throws Exception {
+        UploadStatusDto pending = service.submit(file("notes.pdf", "lecture notes"), 1L);
+        assertNotNull(pending.getUploadId());
+        assertEquals("notes.pdf", pending.getFile().getFileName());
+
+        UploadStatusDto done = service.awaitStatus(pending.getUploadId(), 1L, Duration.ofSeconds(5))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(Status.COMPLETED, done.getStatus());
+        assertEquals("lecture notes", new String(backend.get(done.getFile().getFileUrl()), StandardCharsets.UTF_8));
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void testSubmit_BackendFailureIsReported() throws Exception {
+        backend.failWith(new IOException("backend down"));
+
+        UploadStatusDto pending = service.submit(file("notes.pdf", "lecture notes"), 1L);
+        UploadStatusDto done = service.awaitStatus(pending.getUploadId(), 1L, Duration.ofSeconds(5))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(Status.FAILED, done.getStatus());
+        assertEquals("backend down", done.getError());
+        assertNull(done.getFile().getFileUrl());
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void testGetStatus_OtherUsersUploadIsNotFound() throws Exception {
+        UploadStatusDto pending = service.submit(file("notes.pdf", "lecture notes"), 1L);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus(pending.getUploadId(), 2L));
+        assertThrows(ResourceNotFoundException.class, () -> service.getStatus("unknown", 1L));
+    }
+
+    private static MockMultipartFile file(String name, String content) {
+        return new MockMultipartFile("file", name, "application/pdf", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertSpoolEmpty() throws IOException {
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.college.attendance.service;
+
+import com.college.attendance.repository.AttendanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AttendanceCheckInLedgerTests {
+
+    private static final String ZONE = "Pacific/Kiritimati";
+
+    private AttendanceRepository attendanceRepository;
+    private AttendanceCheckInLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        attendanceRepository = mock(AttendanceRepository.class);
+        ledger = new AttendanceCheckInLedger(attendanceRepository, ZONE);
+    }
+
+    @Test
+    void testToday_UsesConfiguredZone() {
+        LocalDate before = LocalDate.now(ZoneId.of(ZONE));
+        LocalDate today = ledger.today();
+        LocalDate after = LocalDate.now(ZoneId.of(ZONE));
+
+        assertTrue(today.equals(before) || today.equals(after));
+    }
+
+    @Test
+    void testTryMark_OnlyFirstCheckInPerCourseAndDay() {
+        LocalDate today = ledger.today();
+
+        assertFalse(ledger.isCheckedIn(1L, 10L, today));
+        assertTrue(ledger.tryMark(1L, 10L, today));
+        assertFalse(ledger.tryMark(1L, 10L, today));
+        assertTrue(ledger.isCheckedIn(1L, 10L, today));
+
+        assertFalse(ledger.isCheckedIn(1L, 11L, today));
+        assertFalse(ledger.isCheckedIn(2L, 10L, today));
+        assertTrue(ledger.tryMark(1L, 10L, today.plusDays(1)));
+    }
+
+    @Test
+    void testUnmark_ReleasesTheSlot() {
+        LocalDate today = ledger.today();
+        ledger.tryMark(1L, 10L, today);
+
+        ledger.unmark(1L, 10L, today);
+
+        assertFalse(ledger.isCheckedIn(1L, 10L, today));
+        assertTrue(ledger.tryMark(1L, 10L, today));
+    }
+
+    @Test
+    void testWarmUp_LoadsTodaysCheckIns() {
+        LocalDate today = ledger.today();
+        when(attendanceRepository.findUserAndCourseIdsByCheckInDate(today))
+                .thenReturn(List.of(new Object[]{1L, 10L}, new Object[]{2L, 10L}));
+
+        ledger.warmUp();
+
+        assertTrue(ledger.isCheckedIn(1L, 10L, today));
+        assertTrue(ledger.isCheckedIn(2L, 10L, today));
+        assertFalse(ledger.tryMark(2L, 10L, today));
+    }
+
+    @Test
+    void testRotate_KeepsTodayAndYesterday() {
+        LocalDate today = ledger.today();
+        ledger.tryMark(1L, 10L, today);
+        ledger.tryMark(1L, 10L, today.minusDays(1));
+        ledger.tryMark(1L, 10L, today.minusDays(2));
+
+        ledger.rotate();
+
+        assertTrue(ledger.isCheckedIn(1L, 10L, today));
+        assertTrue(ledger.isCheckedIn(1L, 10L, today.minusDays(1)));
+        assertFalse(ledger.isCheckedIn(1L, 10L, today.minusDays(2)));
+    }
+}
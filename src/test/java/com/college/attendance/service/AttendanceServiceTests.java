@@ -23,7 +23,6 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.HashSet;
@@ -51,9 +50,15 @@ public class AttendanceServiceTests {
     @MockBean
     private NetworkVerificationService networkVerificationService;
 
+    @MockBean
+    private EnrollmentMembershipService enrollmentMembership;
+
     @Autowired
     private AttendanceService attendanceService;
 
+    @Autowired
+    private AttendanceCheckInLedger checkInLedger;
+
     @Captor
     private ArgumentCaptor<AttendanceRecord> attendanceRecordCaptor;
 
@@ -89,6 +94,7 @@ public class AttendanceServiceTests {
         Set<Course> courses = new HashSet<>();
         courses.add(testCourse);
         testUser.setCourses(courses);
+        when(enrollmentMembership.isEnrolled(1L, 1L)).thenReturn(true);
 
         // Setup attendance record DTO
         recordDto = new AttendanceRecordDto();
@@ -133,6 +139,7 @@ public class AttendanceServiceTests {
         AttendanceRecord savedRecord = attendanceRecordCaptor.getValue();
         assertEquals(testUser, savedRecord.getUser());
         assertEquals(testCourse, savedRecord.getCourse());
+        assertEquals(checkInLedger.today(), savedRecord.getCheckInDate());
         // assertEquals("College-WiFi", savedRecord.getNetworkIdentifier());
         // assertEquals("WIFI", savedRecord.getVerificationMethod());
     }
@@ -141,6 +148,7 @@ public class AttendanceServiceTests {
     void testRecordAttendance_UserNotEnrolled() {
         // Setup - empty set of courses
         testUser.setCourses(new HashSet<>());
+        when(enrollmentMembership.isEnrolled(1L, 1L)).thenReturn(false);
         
         // Test and verify
         assertThrows(IllegalStateException.class, () -> {
@@ -166,13 +174,16 @@ public class AttendanceServiceTests {
     @Test
     void testRecordAttendance_AlreadyRecorded() {
         // Setup
-        when(attendanceRepository.findByUserAndCourseAndTimestampBetween(any(), any(), any(), any()))
-            .thenReturn(Optional.of(testRecord));
+        checkInLedger.tryMark(testUser.getId(), testCourse.getId(), checkInLedger.today());
         
         // Test and verify
-        assertThrows(IllegalStateException.class, () -> {
-            attendanceService.recordAttendance(testUser, recordDto);
-        });
+        try {
+            assertThrows(IllegalStateException.class, () -> {
+                attendanceService.recordAttendance(testUser, recordDto);
+            });
+        } finally {
+            checkInLedger.unmark(testUser.getId(), testCourse.getId(), checkInLedger.today());
+        }
         
         verify(attendanceRepository, never()).save(any());
     }
@@ -181,6 +192,7 @@ public class AttendanceServiceTests {
     void testEnrollUserInCourse_Success() {
         // Setup
         testUser.setCourses(new HashSet<>()); // Start with no courses
+        when(enrollmentMembership.isEnrolled(1L, 1L)).thenReturn(false);
         
         // Test
         String result = attendanceService.enrollUserInCourse(testUser, 1L);
@@ -0,0 +1,134 @@
+package com.college.attendance.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AttendanceWriteBehindQueueTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 17, 9, 0);
+    private static final LocalDate TODAY = NOW.toLocalDate();
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private Path journal;
+    private final List<String> inserted = Collections.synchronizedList(new ArrayList<>());
+    private AttendanceWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        journal = tempDir.resolve("attendance.journal");
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<?> batch = invocation.getArgument(1);
+            if (batch.toString().contains("userId=99,")) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            batch.forEach(record -> inserted.add(record.toString()));
+            return new int[0][];
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void testStart_ReplaysJournal() throws Exception {
+        // The second record predates the separate check-in day column
+        Files.writeString(journal, "1,10,2026-10-17T09:00,2026-10-17,true\n" + "not a record\n"
+                + "2,10,2026-10-17T09:01,true\n", StandardCharsets.UTF_8);
+
+        queue = newQueue(100);
+
+        assertEquals(2, inserted.size());
+        assertEquals(0, Files.size(journal));
+    }
+
+    @Test
+    void testRejectedRecordIsSetAsideWithoutBlockingOthers() throws Exception {
+        queue = newQueue(100);
+
+        queue.accept(1L, 10L, NOW, TODAY, true);
+        queue.accept(99L, 10L, NOW, TODAY, true);
+        queue.accept(2L, 10L, NOW, TODAY, true);
+
+        Path failed = tempDir.resolve("attendance.journal.failed");
+        awaitTrue(() -> inserted.size() == 2 && Files.exists(failed));
+        assertEquals("99,10,2026-10-17T09:00,2026-10-17,true", Files.readString(failed, StandardCharsets.UTF_8).trim());
+        awaitTrue(() -> {
+            try {
+                return Files.size(journal) == 0;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    @Test
+    void testAccept_RefusedWhenQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            Collection<?> batch = invocation.getArgument(1);
+            batch.forEach(record -> inserted.add(record.toString()));
+            return new int[0][];
+        });
+        queue = newQueue(1);
+
+        queue.accept(1L, 10L, NOW, TODAY, true);
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        queue.accept(2L, 10L, NOW, TODAY, true);
+        assertThrows(IllegalStateException.class, () -> queue.accept(3L, 10L, NOW, TODAY, true));
+
+        release.countDown();
+        awaitTrue(() -> inserted.size() == 2);
+    }
+
+    private AttendanceWriteBehindQueue newQueue(int capacity) throws Exception {
+        AttendanceWriteBehindQueue writeBehind = new AttendanceWriteBehindQueue(jdbcTemplate, new SimpleMeterRegistry(),
+                100, 20, capacity, 1, true, journal.toString());
+        writeBehind.start();
+        return writeBehind;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.ChunkedUploadRequestDto;
+import com.college.attendance.dto.ChunkedUploadSessionDto;
+import com.college.attendance.dto.UploadStatusDto;
+import com.college.attendance.dto.UploadStatusDto.Status;
+import com.college.attendance.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedUploadServiceTests {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    private InMemoryStorageBackend backend;
+    private AsyncUploadService asyncUploadService;
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new InMemoryStorageBackend();
+        asyncUploadService = new AsyncUploadService(backend, tempDir.resolve("spool").toString(), 1, 10, 60);
+        asyncUploadService.init();
+        service = new ChunkedUploadService(asyncUploadService, tempDir.resolve("chunks").toString(),
+                CONTENT.length, 8, 2, 24);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncUploadService.shutdown();
+    }
+
+    @Test
+    void testChunks_AssembleAndStore() throws Exception {
+        String uploadId = create().getUploadId();
+
+        assertEquals(8, append(uploadId, 0, 0, 8).getReceivedBytes());
+        assertEquals(16, append(uploadId, 8, 8, 16).getReceivedBytes());
+        assertEquals(20, append(uploadId, 16, 16, 20).getReceivedBytes());
+
+        UploadStatusDto pending = service.complete(uploadId, 1L);
+        UploadStatusDto done = asyncUploadService.awaitStatus(pending.getUploadId(), 1L, Duration.ofSeconds(5))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(Status.COMPLETED, done.getStatus());
+        assertArrayEquals(CONTENT, backend.get(done.getFile().getFileUrl()));
+        assertThrows(ResourceNotFoundException.class, () -> service.getSession(uploadId, 1L));
+    }
+
+    @Test
+    void testChunks_InterruptedChunkResumesFromReceivedBytes() throws Exception {
+        String uploadId = create().getUploadId();
+
+        // Connection dropped after 5 of the chunk's 8 bytes
+        assertEquals(5, append(uploadId, 0, 0, 5).getReceivedBytes());
+        assertThrows(IllegalStateException.class, () -> append(uploadId, 0, 0, 8));
+
+        append(uploadId, 5, 5, 13);
+        append(uploadId, 13, 13, 20);
+        assertThrows(IllegalStateException.class, () -> append(uploadId, 20, 0, 1));
+        assertEquals(20, service.getSession(uploadId, 1L).getReceivedBytes());
+    }
+
+    @Test
+    void testComplete_RejectsMissingBytes() throws Exception {
+        String uploadId = create().getUploadId();
+        append(uploadId, 0, 0, 8);
+
+        assertThrows(IllegalStateException.class, () -> service.complete(uploadId, 1L));
+    }
+
+    @Test
+    void testCreate_EnforcesLimits() throws Exception {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.create(1L, new ChunkedUploadRequestDto("big.pdf", "application/pdf", CONTENT.length + 1L)));
+
+        create();
+        create();
+        assertThrows(IllegalStateException.class, this::create);
+        assertThrows(ResourceNotFoundException.class, () -> service.getSession(create(2L).getUploadId(), 1L));
+    }
+
+    private ChunkedUploadSessionDto create() throws IOException {
+        return create(1L);
+    }
+
+    private ChunkedUploadSessionDto create(Long ownerId) throws IOException {
+        return service.create(ownerId, new ChunkedUploadRequestDto("notes.pdf", "application/pdf", (long) CONTENT.length));
+    }
+
+    private ChunkedUploadSessionDto append(String uploadId, long offset, int from, int to) throws IOException {
+        byte[] chunk = Arrays.copyOfRange(CONTENT, from, to);
+        return service.appendChunk(uploadId, 1L, offset, chunk.length, new ByteArrayInputStream(chunk));
+    }
+}
@@ -0,0 +1,91 @@
+package com.college.attendance.service;
+
+import com.college.attendance.model.Question;
+import com.college.attendance.model.QuestionOption;
+import com.college.attendance.model.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledAnswerKeyTests {
+
+    @Test
+    void testIndexOf_FindsQuestionsGivenInAnyOrder() {
+        CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+                question(30L, QuestionType.TEXT_ANSWER, 3, "c"),
+                question(10L, QuestionType.TEXT_ANSWER, 1, "a"),
+                question(20L, QuestionType.MULTIPLE_CHOICE, 2, null)));
+
+        assertEquals(3, key.size());
+        for (long questionId : new long[]{10L, 20L, 30L}) {
+            int index = key.indexOf(questionId);
+            assertTrue(index >= 0);
+            assertEquals(questionId, key.questionId(index));
+            assertEquals((int) (questionId / 10), key.points(index));
+        }
+        assertEquals(CompiledAnswerKey.MULTIPLE_CHOICE, key.type(key.indexOf(20L)));
+        assertEquals(CompiledAnswerKey.TEXT_ANSWER, key.type(key.indexOf(30L)));
+        assertTrue(key.indexOf(15L) < 0);
+        assertTrue(key.indexOf(40L) < 0);
+    }
+
+    @Test
+    void testIsCorrectOption_SeveralCorrectOptions() {
+        Question question = question(1L, QuestionType.MULTIPLE_CHOICE, 1, null);
+        question.setOptions(List.of(option(105L, true), option(101L, false), option(103L, true), option(102L, false)));
+        CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(question));
+        int index = key.indexOf(1L);
+
+        assertTrue(key.isCorrectOption(index, 103L));
+        assertTrue(key.isCorrectOption(index, 105L));
+        assertFalse(key.isCorrectOption(index, 101L));
+        assertFalse(key.isCorrectOption(index, 104L));
+        assertTrue(key.hasOption(index, 102L));
+        assertFalse(key.hasOption(index, 104L));
+    }
+
+    @Test
+    void testIsCorrectText_IgnoresCaseAndHandlesMissingKey() {
+        CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(
+                question(1L, QuestionType.TEXT_ANSWER, 1, "Paris"),
+                question(2L, QuestionType.TEXT_ANSWER, 1, null)));
+
+        assertTrue(key.isCorrectText(key.indexOf(1L), "pARIS"));
+        assertFalse(key.isCorrectText(key.indexOf(1L), "Paris "));
+        assertFalse(key.isCorrectText(key.indexOf(1L), null));
+        // A question without a correct answer accepts nothing
+        assertFalse(key.isCorrectText(key.indexOf(2L), "Paris"));
+        assertFalse(key.isCorrectText(key.indexOf(2L), null));
+    }
+
+    @Test
+    void testCompile_Defaults() {
+        Question noPoints = question(1L, QuestionType.MULTIPLE_CHOICE, 1, null);
+        noPoints.setPoints(null);
+        noPoints.setOptions(null);
+        Question untyped = question(2L, null, 4, null);
+        CompiledAnswerKey key = CompiledAnswerKey.compile(List.of(noPoints, untyped));
+
+        assertEquals(0, key.points(key.indexOf(1L)));
+        assertFalse(key.hasOption(key.indexOf(1L), 1L));
+        assertEquals(CompiledAnswerKey.UNGRADED, key.type(key.indexOf(2L)));
+    }
+
+    private static Question question(Long id, QuestionType type, int points, String correctAnswer) {
+        Question question = new Question();
+        question.setId(id);
+        question.setType(type);
+        question.setPoints(points);
+        question.setCorrectAnswer(correctAnswer);
+        return question;
+    }
+
+    private static QuestionOption option(Long id, boolean correct) {
+        QuestionOption option = new QuestionOption();
+        option.setId(id);
+        option.setCorrect(correct);
+        return option;
+    }
+}
@@ -0,0 +1,138 @@
+package com.college.attendance.service;
+
+import com.college.attendance.config.PostgresJdbcTest;
+import com.college.attendance.service.ContentAddressedFileStore.Collected;
+import com.college.attendance.service.ContentAddressedFileStore.StoredUpload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentAddressedFileStoreTests extends PostgresJdbcTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ContentAddressedFileStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ContentAddressedFileStore(jdbcTemplate, uploadDir.toString());
+    }
+
+    @Test
+    void testPut_StoresContentsOnceWithOwnNameAndMetadataPerUpload() throws Exception {
+        StoredUpload first = put("same bytes", "report.pdf", "application/pdf");
+        StoredUpload second = put("same bytes", "Someone else's notes.PDF", "application/x-pdf");
+
+        assertNotEquals(first.storageName(), second.storageName());
+        assertTrue(first.storageName().endsWith(".pdf"));
+        assertTrue(second.storageName().endsWith(".pdf"));
+        String hash = contentHash(first.storageName());
+        assertFalse(first.storageName().contains(hash));
+        assertEquals(hash, contentHash(second.storageName()));
+
+        assertEquals(first.blob(), second.blob());
+        assertEquals(first.blob(), store.locate(hash).orElse(null));
+        assertEquals("same bytes", Files.readString(first.blob(), StandardCharsets.UTF_8));
+        assertEquals(10, second.size());
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            // Only the blob directory; no upload is stored under its own name or left half-written
+            assertEquals(List.of(uploadDir.resolve(ContentAddressedFileStore.BLOB_DIRECTORY)), files.toList());
+        }
+        try (Stream<Path> blobs = Files.list(first.blob().getParent())) {
+            assertEquals(1, blobs.count());
+        }
+
+        Map<String, Object> secondRow = jdbcTemplate.queryForMap(
+                "SELECT original_name, content_type FROM stored_files WHERE storage_name = ?", second.storageName());
+        assertEquals("Someone else's notes.PDF", secondRow.get("original_name"));
+        assertEquals("application/x-pdf", secondRow.get("content_type"));
+        assertEquals("report.pdf", jdbcTemplate.queryForObject(
+                "SELECT original_name FROM stored_files WHERE storage_name = ?", String.class, first.storageName()));
+    }
+
+    @Test
+    void testLocate_UnknownHash() {
+        assertTrue(store.locate("0".repeat(64)).isEmpty());
+    }
+
+    @Test
+    void testCollectUnreferenced_DeletesUnusedUploadsThenOrphanedBlobs() throws Exception {
+        StoredUpload attached = put("shared", "a.txt", "text/plain");
+        StoredUpload unattached = put("shared", "b.txt", "text/plain");
+        StoredUpload orphan = put("orphan", "c.txt", "text/plain");
+        StoredUpload recent = put("recent", "d.txt", "text/plain");
+        attach(attached.storageName());
+        backdate(attached.storageName(), unattached.storageName(), orphan.storageName());
+
+        Collected collected = store.collectUnreferenced(Duration.ofDays(1));
+
+        assertEquals(Set.of(unattached.storageName(), orphan.storageName()), Set.copyOf(collected.storageNames()));
+        assertEquals(List.of(uploadDir.relativize(orphan.blob()).toString()), collected.blobs());
+        assertTrue(Files.exists(attached.blob()));
+        assertFalse(Files.exists(orphan.blob()));
+        assertTrue(Files.exists(recent.blob()));
+        assertEquals(List.of(attached.storageName(), recent.storageName()), jdbcTemplate.queryForList(
+                "SELECT storage_name FROM stored_files WHERE storage_name IN (?, ?, ?, ?) ORDER BY id", String.class,
+                attached.storageName(), unattached.storageName(), orphan.storageName(), recent.storageName()));
+
+        // The same bytes can be stored again once their blob is gone
+        StoredUpload again = put("orphan", "c.txt", "text/plain");
+        assertEquals(orphan.blob(), again.blob());
+        assertTrue(Files.exists(again.blob()));
+    }
+
+    private StoredUpload put(String content, String fileName, String contentType) throws Exception {
+        return store.put(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), fileName, contentType);
+    }
+
+    private String contentHash(String storageName) {
+        return jdbcTemplate.queryForObject(
+                "SELECT content_hash FROM stored_files WHERE storage_name = ?", String.class, storageName);
+    }
+
+    private void backdate(String... storageNames) {
+        LocalDateTime past = LocalDateTime.now().minusDays(2);
+        for (String storageName : storageNames) {
+            String hash = contentHash(storageName);
+            jdbcTemplate.update("UPDATE stored_files SET created_at = ? WHERE storage_name = ?", past, storageName);
+            jdbcTemplate.update("UPDATE file_blobs SET last_used_at = ? WHERE content_hash = ?", past, hash);
+        }
+    }
+
+    private void attach(String storageName) {
+        LocalDateTime now = LocalDateTime.now();
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, full_name, email, role) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, "blob_professor", "password", "Professor", "blob_professor@example.com", "PROFESSOR");
+        Long courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO courses (course_code, course_name, start_time, end_time) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, "BLOB101", "Blobs", LocalTime.of(9, 0), LocalTime.of(10, 0));
+        Long assignmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO assignments (title, course_id, creator_id, due_date, created_at) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, "Assignment", courseId, userId, now.plusDays(7), now);
+        jdbcTemplate.update(
+                "INSERT INTO assignment_files (assignment_id, file_name, file_url, content_type, file_size, uploaded_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?)",
+                assignmentId, "a.txt", "/api/files/" + storageName, "text/plain", 6L, now);
+    }
+}
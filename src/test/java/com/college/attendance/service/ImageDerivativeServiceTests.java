@@ -0,0 +1,78 @@
+package com.college.attendance.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageDerivativeServiceTests {
+
+    @TempDir
+    Path tempDir;
+
+    private final ImageDerivativeService service = new ImageDerivativeService(new int[]{480, 160}, 1, 10);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testWidthFor_PicksSmallestWideEnough() {
+        assertEquals(OptionalInt.of(160), service.widthFor(100));
+        assertEquals(OptionalInt.of(160), service.widthFor(160));
+        assertEquals(OptionalInt.of(480), service.widthFor(161));
+        assertEquals(OptionalInt.empty(), service.widthFor(1000));
+    }
+
+    @Test
+    void testGenerate_ScalesLargeImagesAndCopiesSmallOnes() throws IOException {
+        Path source = writePng("photo.png", 2000, 1000);
+        Path small = tempDir.resolve("photo_w160.png");
+        Path large = tempDir.resolve("photo_w480.png");
+
+        service.generate(source, Map.of(160, small, 480, large));
+
+        BufferedImage thumbnail = ImageIO.read(small.toFile());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+        assertEquals(480, ImageIO.read(large.toFile()).getWidth());
+        assertTrue(Files.size(small) < Files.size(source));
+
+        Path icon = writePng("icon.png", 100, 100);
+        Path iconTarget = tempDir.resolve("icon_w160.png");
+        service.generate(icon, Map.of(160, iconTarget));
+        assertArrayEquals(Files.readAllBytes(icon), Files.readAllBytes(iconTarget));
+    }
+
+    @Test
+    void testGenerate_RejectsFilesThatAreNotImages() throws IOException {
+        Path source = tempDir.resolve("notes.png");
+        Files.writeString(source, "not an image", StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> service.generate(source, Map.of(160, tempDir.resolve("notes_w160.png"))));
+        assertFalse(Files.exists(tempDir.resolve("notes_w160.png")));
+    }
+
+    private Path writePng(String name, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 7 + y * 13) & 0xFFFFFF);
+            }
+        }
+        Path path = tempDir.resolve(name);
+        ImageIO.write(image, "png", path.toFile());
+        return path;
+    }
+}
@@ -0,0 +1,36 @@
+package com.college.attendance.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fake {@link StorageBackend} for tests: keeps stored files in memory and can be told to fail.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private volatile IOException failure;
+
+    @Override
+    public String store(Path file, String originalFilename, String contentType) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        String url = "memory://" + sequence.incrementAndGet() + "/" + originalFilename;
+        files.put(url, Files.readAllBytes(file));
+        return url;
+    }
+
+    public byte[] get(String url) {
+        return files.get(url);
+    }
+
+    public void failWith(IOException failure) {
+        this.failure = failure;
+    }
+}
@@ -0,0 +1,176 @@
+package com.college.attendance.service;
+
+import com.college.attendance.service.QuizGradingService.GradedAnswer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class QuizAnswerAutosaveBufferTests {
+
+    private static final int BATCH_SIZE = 2;
+
+    private JdbcTemplate jdbcTemplate;
+    private QuizAnswerAutosaveBuffer buffer;
+    private final List<Object[]> written = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> write(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        buffer = new QuizAnswerAutosaveBuffer(jdbcTemplate, BATCH_SIZE);
+    }
+
+    @Test
+    void testFlush_WritesLatestAnswerPerQuestionInConfiguredBatches() {
+        buffer.save(1L, List.of(answer(10L, 100L), answer(11L, 110L)));
+        buffer.save(1L, List.of(answer(10L, 101L)));
+        buffer.save(2L, List.of(answer(20L, 200L)));
+
+        buffer.flush();
+
+        assertEquals(3, written.size());
+        assertEquals(List.of(BATCH_SIZE), batchSizes);
+        assertEquals(101L, answerFor(1L, 10L).selectedOptionId());
+        assertEquals(110L, answerFor(1L, 11L).selectedOptionId());
+        assertEquals(200L, answerFor(2L, 20L).selectedOptionId());
+    }
+
+    @Test
+    void testFlush_NothingPendingWritesNothing() {
+        buffer.save(1L, List.of(answer(10L, 100L)));
+        buffer.flush();
+        written.clear();
+
+        // The first idle flush retires the buffer; a later save must start a fresh one
+        buffer.flush();
+        buffer.save(1L, List.of(answer(10L, 102L)));
+        buffer.flush();
+
+        assertEquals(1, written.size());
+        assertEquals(102L, answerFor(1L, 10L).selectedOptionId());
+    }
+
+    @Test
+    void testFlush_FailedWriteIsRetriedWithoutOverwritingNewerAnswers() {
+        buffer.save(1L, List.of(answer(10L, 100L), answer(11L, 110L)));
+        doAnswer(invocation -> {
+            // A newer answer arrives while the failing flush is in flight
+            buffer.save(1L, List.of(answer(10L, 101L)));
+            throw new QueryTimeoutException("statement timed out");
+        }).doAnswer(invocation -> write(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        buffer.flush();
+        assertTrue(written.isEmpty());
+
+        buffer.flush();
+        assertEquals(2, written.size());
+        assertEquals(101L, answerFor(1L, 10L).selectedOptionId());
+        assertEquals(110L, answerFor(1L, 11L).selectedOptionId());
+    }
+
+    @Test
+    void testDrain_ReturnsUnflushedAnswersAndClosesTheAttempt() {
+        buffer.save(1L, List.of(answer(10L, 100L)));
+
+        List<GradedAnswer> drained = buffer.drain(1L);
+
+        assertEquals(1, drained.size());
+        assertThrows(IllegalStateException.class, () -> buffer.save(1L, List.of(answer(10L, 101L))));
+        buffer.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        buffer.restore(1L, drained);
+        buffer.save(1L, List.of(answer(11L, 110L)));
+        buffer.flush();
+        assertEquals(2, written.size());
+    }
+
+    @Test
+    void testDrain_WaitsForInFlightFlush() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return write(invocation.getArgument(1), invocation.getArgument(2));
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        buffer.save(1L, List.of(answer(10L, 100L)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(buffer::flush);
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Future<List<GradedAnswer>> drained = executor.submit(() -> buffer.drain(1L));
+            assertThrows(TimeoutException.class, () -> drained.get(100, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+
+            // The flushed answer is in the database, so the submission must not see it again
+            assertTrue(drained.get(5, TimeUnit.SECONDS).isEmpty());
+            assertEquals(1, written.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testShutdownFlushWritesEveryOpenAttempt() {
+        buffer.save(1L, List.of(answer(10L, 100L)));
+        buffer.save(2L, List.of(answer(20L, 200L)));
+        buffer.save(3L, List.of(answer(30L, 300L)));
+        buffer.drain(3L);
+
+        buffer.flush();
+
+        assertEquals(2, written.size());
+        assertNotNull(answerFor(1L, 10L));
+        assertNotNull(answerFor(2L, 20L));
+    }
+
+    private int[][] write(Collection<Object[]> rows, int batchSize) {
+        written.addAll(rows);
+        batchSizes.add(batchSize);
+        return new int[0][];
+    }
+
+    private GradedAnswer answerFor(Long attemptId, Long questionId) {
+        synchronized (written) {
+            return written.stream()
+                    .filter(row -> attemptId.equals(row[0]))
+                    .map(row -> (GradedAnswer) row[1])
+                    .filter(answer -> questionId.equals(answer.questionId()))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+
+    private static GradedAnswer answer(Long questionId, Long optionId) {
+        return new GradedAnswer(null, questionId, optionId, null, 1, true);
+    }
+}
@@ -0,0 +1,156 @@
+package com.college.attendance.service;
+
+import com.college.attendance.model.Quiz;
+import com.college.attendance.repository.QuizAttemptRepository;
+import com.college.attendance.repository.QuizRepository;
+import com.college.attendance.service.QuizAttemptRegistry.StartOutcome;
+import com.college.attendance.service.QuizAttemptRegistry.StartResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QuizAttemptRegistryTests {
+
+    private static final Long QUIZ_ID = 7L;
+
+    private QuizRepository quizRepository;
+    private QuizAttemptRepository quizAttemptRepository;
+    private JdbcTemplate jdbcTemplate;
+    private QuizAttemptRegistry registry;
+    private LocalDateTime now;
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        Quiz quiz = new Quiz();
+        quiz.setId(QUIZ_ID);
+        quiz.setStartDate(now.minusMinutes(5));
+        quiz.setEndDate(now.plusHours(1));
+        quiz.setDurationMinutes(30);
+
+        quizRepository = mock(QuizRepository.class);
+        quizAttemptRepository = mock(QuizAttemptRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(quizRepository.findById(QUIZ_ID)).thenReturn(Optional.of(quiz));
+        when(quizAttemptRepository.findAttemptStatesByQuizId(QUIZ_ID)).thenReturn(List.of());
+        doAnswer(invocation -> insertRows(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                        any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        registry = new QuizAttemptRegistry(quizRepository, quizAttemptRepository, jdbcTemplate, 200, 200);
+        registry.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registry.stop();
+    }
+
+    @Test
+    void testStart_SecondStartContinuesTheSameAttempt() {
+        StartResult started = registry.start(QUIZ_ID, 1L, now);
+        StartResult continued = registry.start(QUIZ_ID, 1L, now.plusMinutes(1));
+
+        assertEquals(StartOutcome.STARTED, started.outcome());
+        assertEquals(now.plusMinutes(30), started.deadline());
+        assertEquals(StartOutcome.CONTINUED, continued.outcome());
+        assertEquals(started.attemptId(), continued.attemptId());
+        assertEquals(started.startTime(), continued.startTime());
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    @Test
+    void testStart_UsesLoadedAttemptStates() {
+        when(quizAttemptRepository.findAttemptStatesByQuizId(QUIZ_ID)).thenReturn(List.of(
+                new Object[]{1L, 11L, now.minusMinutes(3), true},
+                new Object[]{2L, 12L, now.minusMinutes(2), false}));
+
+        assertEquals(StartOutcome.COMPLETED, registry.start(QUIZ_ID, 1L, now).outcome());
+        StartResult inProgress = registry.start(QUIZ_ID, 2L, now);
+        assertEquals(StartOutcome.CONTINUED, inProgress.outcome());
+        assertEquals(12L, inProgress.attemptId());
+        assertEquals(StartOutcome.NOT_AVAILABLE, registry.start(QUIZ_ID, 3L, now.plusHours(2)).outcome());
+    }
+
+    @Test
+    void testStart_TimedOutStartIsContinuedNotInsertedTwice() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return insertRows(invocation.getArgument(1), invocation.getArgument(2));
+        }).when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        assertThrows(IllegalStateException.class, () -> registry.start(QUIZ_ID, 1L, now));
+        release.countDown();
+
+        StartResult retried = registry.start(QUIZ_ID, 1L, now.plusSeconds(5));
+        assertEquals(StartOutcome.CONTINUED, retried.outcome());
+        assertEquals(now, retried.startTime());
+        verify(jdbcTemplate, times(1)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    @Test
+    void testStart_FailedInsertIsReplacedOnRetry() {
+        doThrow(new DataIntegrityViolationException("insert rejected"))
+                .doAnswer(invocation -> insertRows(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                        any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+
+        assertThrows(IllegalStateException.class, () -> registry.start(QUIZ_ID, 1L, now));
+
+        StartResult retried = registry.start(QUIZ_ID, 1L, now.plusSeconds(5));
+        assertEquals(StartOutcome.STARTED, retried.outcome());
+        assertNotNull(retried.attemptId());
+    }
+
+    @Test
+    void testMarkCompleted() {
+        registry.start(QUIZ_ID, 1L, now);
+
+        registry.markCompleted(QUIZ_ID, 1L);
+
+        assertTrue(registry.findActiveAttempt(QUIZ_ID, 1L).isEmpty());
+        assertEquals(StartOutcome.COMPLETED, registry.start(QUIZ_ID, 1L, now).outcome());
+    }
+
+    @Test
+    void testUnknownQuiz() {
+        when(quizRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> registry.start(99L, 1L, now));
+        assertThrows(IllegalArgumentException.class, () -> registry.start(99L, 1L, now));
+    }
+
+    private int[] insertRows(BatchPreparedStatementSetter setter, KeyHolder keyHolder) {
+        for (int i = 0; i < setter.getBatchSize(); i++) {
+            keyHolder.getKeyList().add(Map.of("id", nextId.incrementAndGet()));
+        }
+        return new int[setter.getBatchSize()];
+    }
+}
@@ -0,0 +1,57 @@
+package com.college.attendance.service;
+
+import com.college.attendance.dto.QuizSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizAvailabilityIndexTests {
+
+    private LocalDateTime base;
+    private QuizAvailabilityIndex.CourseWindows windows;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.of(2025, 1, 1, 9, 0);
+        windows = QuizAvailabilityIndex.CourseWindows.of(List.of(
+                quiz(1L, base, base.plusHours(2)),
+                quiz(2L, base.plusHours(1), base.plusHours(3)),
+                quiz(3L, base.plusHours(5), base.plusHours(6))));
+    }
+
+    @Test
+    void testAvailableAt_OverlappingWindows() {
+        assertEquals(List.of(1L), ids(base.plusMinutes(30)));
+        assertEquals(List.of(1L, 2L), ids(base.plusMinutes(90)));
+        assertEquals(List.of(2L), ids(base.plusMinutes(150)));
+        assertEquals(List.of(3L), ids(base.plusMinutes(330)));
+    }
+
+    @Test
+    void testAvailableAt_BoundsAreExclusive() {
+        assertEquals(List.of(), ids(base));
+        assertEquals(List.of(1L), ids(base.plusHours(1)));
+        assertEquals(List.of(2L), ids(base.plusHours(2)));
+        assertEquals(List.of(), ids(base.plusHours(3)));
+    }
+
+    @Test
+    void testAvailableAt_OutsideAllWindows() {
+        assertEquals(List.of(), ids(base.minusDays(1)));
+        assertEquals(List.of(), ids(base.plusHours(4)));
+        assertEquals(List.of(), ids(base.plusDays(1)));
+    }
+
+    private List<Long> ids(LocalDateTime now) {
+        return windows.availableAt(now).stream().map(QuizSummaryDto::getId).collect(Collectors.toList());
+    }
+
+    private static QuizSummaryDto quiz(Long id, LocalDateTime start, LocalDateTime end) {
+        return new QuizSummaryDto(id, "Quiz " + id, null, start, end, 30, 1L, 1L, 0L);
+    }
+}
@@ -0,0 +1,68 @@
+package com.college.attendance.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizDeadlineWheelTests {
+
+    private static final long START = 1_000_000_000L;
+
+    private QuizDeadlineWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new QuizDeadlineWheel(1000, 60, START);
+    }
+
+    @Test
+    void testAdvance_ReturnsOnlyDueAttempts() {
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 10_000);
+
+        assertTrue(wheel.advance(START + 4_000).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 5_000));
+        assertEquals(List.of(2L), wheel.advance(START + 10_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_DeadlineBeyondOneRevolution() {
+        wheel.schedule(1L, START + 65_000);
+
+        assertTrue(wheel.advance(START + 5_000).isEmpty());
+        assertTrue(wheel.advance(START + 64_000).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(START + 65_000));
+    }
+
+    @Test
+    void testAdvance_AfterLongPause() {
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 200_000);
+
+        assertEquals(List.of(1L), wheel.advance(START + 150_000));
+        assertEquals(List.of(2L), wheel.advance(START + 200_000));
+    }
+
+    @Test
+    void testSchedule_PastDeadlineFiresOnNextTick() {
+        wheel.schedule(1L, START - 60_000);
+
+        assertEquals(List.of(1L), wheel.advance(START + 1_000));
+    }
+
+    @Test
+    void testCancelAndReschedule() {
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 5_000);
+        wheel.cancel(1L);
+        wheel.schedule(2L, START + 8_000);
+
+        assertTrue(wheel.advance(START + 5_000).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(START + 8_000));
+        assertEquals(0, wheel.size());
+    }
+}
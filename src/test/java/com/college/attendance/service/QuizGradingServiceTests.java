@@ -0,0 +1,256 @@
+package com.college.attendance.service;
+
+import com.college.attendance.config.PostgresJdbcTest;
+import com.college.attendance.dto.QuizAnswerDto;
+import com.college.attendance.model.Question;
+import com.college.attendance.model.QuestionOption;
+import com.college.attendance.model.QuestionType;
+import com.college.attendance.model.Quiz;
+import com.college.attendance.model.QuizAttempt;
+import com.college.attendance.repository.QuestionRepository;
+import com.college.attendance.service.QuizGradingService.GradedAnswer;
+import com.college.attendance.service.QuizGradingService.GradingResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Scoring follows the controller's original submitQuiz: correct answers earn the question's
+ * points, wrong ones earn 0, an unanswered multiple-choice question is stored ungraded with no
+ * points, and every answered question counts towards the maximum score.
+ */
+public class QuizGradingServiceTests extends PostgresJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private QuizGradingService quizGradingService;
+    private QuizAnswerAutosaveBuffer autosaveBuffer;
+    private LocalDateTime now;
+    private Long quizId;
+    private Long studentId;
+
+    // Multiple choice, 2 points: optionA is correct
+    private Long choiceQuestion;
+    private Long optionA;
+    private Long optionB;
+    // Multiple choice, 3 points: optionC is correct
+    private Long otherChoiceQuestion;
+    private Long optionC;
+    private Long optionD;
+    // Text answer, 5 points: "Paris"
+    private Long textQuestion;
+    // Multiple choice, 1 point, left unanswered
+    private Long unansweredQuestion;
+    // A question of another quiz
+    private Long foreignQuestion;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long professorId = insertUser("quiz_grading_professor", "PROFESSOR");
+        studentId = insertUser("quiz_grading_student", "STUDENT");
+        Long courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO courses (course_code, course_name, start_time, end_time) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, "QGR101", "Quiz grading", LocalTime.of(9, 0), LocalTime.of(10, 0));
+        quizId = insertQuiz(courseId, professorId);
+        Long otherQuizId = insertQuiz(courseId, professorId);
+
+        List<Question> questions = new ArrayList<>();
+        Question choice = insertQuestion(quizId, QuestionType.MULTIPLE_CHOICE, 2, null);
+        optionA = insertOption(choice, true);
+        optionB = insertOption(choice, false);
+        choiceQuestion = choice.getId();
+        questions.add(choice);
+        Question otherChoice = insertQuestion(quizId, QuestionType.MULTIPLE_CHOICE, 3, null);
+        optionC = insertOption(otherChoice, true);
+        optionD = insertOption(otherChoice, false);
+        otherChoiceQuestion = otherChoice.getId();
+        questions.add(otherChoice);
+        Question text = insertQuestion(quizId, QuestionType.TEXT_ANSWER, 5, "Paris");
+        textQuestion = text.getId();
+        questions.add(text);
+        Question unanswered = insertQuestion(quizId, QuestionType.MULTIPLE_CHOICE, 1, null);
+        insertOption(unanswered, true);
+        unansweredQuestion = unanswered.getId();
+        questions.add(unanswered);
+        foreignQuestion = insertQuestion(otherQuizId, QuestionType.TEXT_ANSWER, 4, "Paris").getId();
+
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findWithOptionsByQuizId(quizId)).thenReturn(questions);
+        autosaveBuffer = new QuizAnswerAutosaveBuffer(jdbcTemplate, 500);
+        quizGradingService = new QuizGradingService(questionRepository, jdbcTemplate, autosaveBuffer);
+    }
+
+    @Test
+    void testGrade_ScoresCorrectWrongAndMissingAnswers() {
+        GradingResult result = quizGradingService.grade(quizId, List.of(
+                new QuizAnswerDto(choiceQuestion, optionA, null),
+                new QuizAnswerDto(otherChoiceQuestion, optionD, null),
+                new QuizAnswerDto(unansweredQuestion, null, null),
+                new QuizAnswerDto(textQuestion, null, "pARIS")));
+
+        assertEquals(7, result.score());
+        assertEquals(11, result.maxScore());
+        List<GradedAnswer> answers = result.answers();
+        assertEquals(new GradedAnswer(null, choiceQuestion, optionA, null, 2, true), answers.get(0));
+        assertEquals(new GradedAnswer(null, otherChoiceQuestion, optionD, null, 0, true), answers.get(1));
+        assertEquals(new GradedAnswer(null, unansweredQuestion, null, null, null, false), answers.get(2));
+        // Text answers match case-insensitively
+        assertEquals(new GradedAnswer(null, textQuestion, null, "pARIS", 5, true), answers.get(3));
+
+        GradingResult wrongText = quizGradingService.grade(quizId, List.of(
+                new QuizAnswerDto(textQuestion, null, "Paris, France"),
+                new QuizAnswerDto(otherChoiceQuestion, null, null)));
+        assertEquals(0, wrongText.score());
+        assertEquals(8, wrongText.maxScore());
+        assertEquals(0, wrongText.answers().get(0).pointsAwarded());
+        assertTrue(wrongText.answers().get(0).graded());
+    }
+
+    @Test
+    void testGrade_OptionOfAnotherQuestionEarnsNothing() {
+        // optionC is correct, but for otherChoiceQuestion
+        GradingResult result = quizGradingService.grade(quizId, List.of(
+                new QuizAnswerDto(choiceQuestion, optionC, null)));
+
+        assertEquals(0, result.score());
+        assertEquals(2, result.maxScore());
+        assertEquals(new GradedAnswer(null, choiceQuestion, null, null, 0, true), result.answers().get(0));
+    }
+
+    @Test
+    void testGrade_RejectsQuestionOfAnotherQuiz() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> quizGradingService.grade(quizId,
+                List.of(new QuizAnswerDto(choiceQuestion, optionA, null), new QuizAnswerDto(foreignQuestion, null, "Paris"))));
+        assertEquals("Question not found", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> quizGradingService.grade(quizId,
+                List.of(new QuizAnswerDto(null, optionA, null))));
+    }
+
+    @Test
+    void testSubmitAttempt_MergesSavedThenBufferedThenSubmittedAnswers() {
+        QuizAttempt attempt = insertAttempt();
+        insertAnswer(attempt.getId(), choiceQuestion, optionA, null);
+        insertAnswer(attempt.getId(), otherChoiceQuestion, optionD, null);
+        insertAnswer(attempt.getId(), textQuestion, null, "London");
+        quizGradingService.autosave(quizId, attempt.getId(), List.of(
+                new QuizAnswerDto(otherChoiceQuestion, optionC, null),
+                new QuizAnswerDto(textQuestion, null, "Paris")));
+
+        GradingResult result = quizGradingService.submitAttempt(attempt,
+                List.of(new QuizAnswerDto(textQuestion, null, "Rome")), now);
+
+        // Saved answer kept, buffered answer replaces the saved one, submitted answer replaces both
+        assertEquals(5, result.score());
+        assertEquals(10, result.maxScore());
+        assertEquals(3, result.answers().size());
+        assertTrue(result.answers().stream().allMatch(answer -> answer.id() != null));
+        assertEquals(optionA, answerRow(attempt.getId(), choiceQuestion).get("selected_option_id"));
+        assertEquals(optionC, answerRow(attempt.getId(), otherChoiceQuestion).get("selected_option_id"));
+        assertEquals(3, answerRow(attempt.getId(), otherChoiceQuestion).get("points_awarded"));
+        Map<String, Object> text = answerRow(attempt.getId(), textQuestion);
+        assertEquals("Rome", text.get("text_answer"));
+        assertEquals(0, text.get("points_awarded"));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM quiz_answers WHERE attempt_id = ?", Integer.class, attempt.getId()));
+
+        Map<String, Object> row = attemptRow(attempt.getId());
+        assertEquals(true, row.get("completed"));
+        assertEquals(5, row.get("score"));
+        assertEquals(10, row.get("max_score"));
+        assertEquals(Timestamp.valueOf(now), row.get("end_time"));
+    }
+
+    @Test
+    void testSubmitAttempt_RefusesSecondSubmission() {
+        QuizAttempt attempt = insertAttempt();
+        quizGradingService.submitAttempt(attempt, List.of(new QuizAnswerDto(choiceQuestion, optionA, null)), now);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> quizGradingService.submitAttempt(
+                attempt, List.of(new QuizAnswerDto(choiceQuestion, optionB, null)), now.plusMinutes(5)));
+        assertEquals("Quiz attempt has already been submitted", e.getMessage());
+
+        // The first submission's completion is left as it was
+        Map<String, Object> row = attemptRow(attempt.getId());
+        assertEquals(2, row.get("score"));
+        assertEquals(2, row.get("max_score"));
+        assertEquals(Timestamp.valueOf(now), row.get("end_time"));
+    }
+
+    private Long insertUser(String username, String role) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, full_name, email, role) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, username, "password", username, username + "@example.com", role);
+    }
+
+    private Long insertQuiz(Long courseId, Long professorId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO quizzes (title, start_date, end_date, duration_minutes, course_id, creator_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?) RETURNING id",
+                Long.class, "Quiz", now.minusDays(1), now.plusDays(1), 30, courseId, professorId);
+    }
+
+    private Question insertQuestion(Long quizId, QuestionType type, int points, String correctAnswer) {
+        Question question = new Question();
+        question.setId(jdbcTemplate.queryForObject(
+                "INSERT INTO questions (quiz_id, text, type, points, correct_answer) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, quizId, "Question", type.name(), points, correctAnswer));
+        question.setType(type);
+        question.setPoints(points);
+        question.setCorrectAnswer(correctAnswer);
+        question.setOptions(new ArrayList<>());
+        return question;
+    }
+
+    private Long insertOption(Question question, boolean correct) {
+        QuestionOption option = new QuestionOption();
+        option.setId(jdbcTemplate.queryForObject(
+                "INSERT INTO question_options (question_id, text, correct) VALUES (?, ?, ?) RETURNING id",
+                Long.class, question.getId(), "Option", correct));
+        option.setCorrect(correct);
+        question.getOptions().add(option);
+        return option.getId();
+    }
+
+    private QuizAttempt insertAttempt() {
+        Quiz quiz = new Quiz();
+        quiz.setId(quizId);
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuiz(quiz);
+        attempt.setId(jdbcTemplate.queryForObject(
+                "INSERT INTO quiz_attempts (quiz_id, student_id, start_time, completed) VALUES (?, ?, ?, FALSE) RETURNING id",
+                Long.class, quizId, studentId, now.minusMinutes(10)));
+        return attempt;
+    }
+
+    private void insertAnswer(Long attemptId, Long questionId, Long optionId, String textAnswer) {
+        jdbcTemplate.update(
+                "INSERT INTO quiz_answers (attempt_id, question_id, selected_option_id, text_answer, graded) VALUES (?, ?, ?, ?, FALSE)",
+                attemptId, questionId, optionId, textAnswer);
+    }
+
+    private Map<String, Object> answerRow(Long attemptId, Long questionId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT selected_option_id, text_answer, points_awarded FROM quiz_answers WHERE attempt_id = ? AND question_id = ?",
+                attemptId, questionId);
+    }
+
+    private Map<String, Object> attemptRow(Long attemptId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT completed, score, max_score, end_time FROM quiz_attempts WHERE id = ?", attemptId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.college.attendance.service;
+
+import com.college.attendance.config.PostgresJdbcTest;
+import com.college.attendance.dto.QuizStatisticsDto;
+import com.college.attendance.dto.QuizStatisticsDto.QuestionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizStatisticsServiceTests extends PostgresJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private QuizStatisticsService quizStatisticsService;
+    private Long professorId;
+    private Long courseId;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        quizStatisticsService = new QuizStatisticsService(jdbcTemplate);
+        now = LocalDateTime.now();
+        professorId = insertUser("stats_professor", "PROFESSOR");
+        courseId = jdbcTemplate.queryForObject(
+                "INSERT INTO courses (course_code, course_name, start_time, end_time) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, "STAT101", "Statistics", LocalTime.of(9, 0), LocalTime.of(10, 0));
+    }
+
+    @Test
+    void testGetStatistics_AggregatesCompletedAttempts() {
+        Long quizId = insertQuiz();
+        Long first = insertQuestion(quizId, "First", 1);
+        Long second = insertQuestion(quizId, "Second", 2);
+        Long a = insertAttempt(quizId, insertUser("stats_a", "STUDENT"), true, 4);
+        Long b = insertAttempt(quizId, insertUser("stats_b", "STUDENT"), true, 6);
+        Long c = insertAttempt(quizId, insertUser("stats_c", "STUDENT"), true, 10);
+        Long unfinished = insertAttempt(quizId, insertUser("stats_d", "STUDENT"), false, null);
+        insertAnswer(a, first, 0);
+        insertAnswer(b, first, 1);
+        insertAnswer(c, first, 1);
+        insertAnswer(unfinished, first, 1);
+
+        QuizStatisticsDto statistics = quizStatisticsService.getStatistics(quizId);
+
+        assertEquals(3, statistics.getSubmissionCount());
+        assertEquals(20.0 / 3, statistics.getMeanScore(), 1e-9);
+        assertEquals(6.0, statistics.getMedianScore(), 1e-9);
+        assertEquals(Math.sqrt(56.0 / 9), statistics.getStandardDeviation(), 1e-9);
+        assertEquals(4, statistics.getMinScore());
+        assertEquals(10, statistics.getMaxScore());
+
+        assertEquals(10, statistics.getHistogram().size());
+        assertEquals(1, statistics.getHistogram().get(4).getCount());
+        assertEquals(1, statistics.getHistogram().get(6).getCount());
+        // A full score lands in the last bucket rather than an overflow bucket
+        assertEquals(1, statistics.getHistogram().get(9).getCount());
+        assertEquals(3, statistics.getHistogram().stream().mapToLong(bucket -> bucket.getCount()).sum());
+
+        assertEquals(2, statistics.getQuestions().size());
+        QuestionStatistics firstStatistics = statistics.getQuestions().get(0);
+        assertEquals(first, firstStatistics.getQuestionId());
+        assertEquals(3, firstStatistics.getAnswerCount());
+        assertEquals(2, firstStatistics.getCorrectCount());
+        assertEquals(2.0 / 3, firstStatistics.getCorrectRate(), 1e-9);
+        QuestionStatistics secondStatistics = statistics.getQuestions().get(1);
+        assertEquals(second, secondStatistics.getQuestionId());
+        assertEquals(0, secondStatistics.getAnswerCount());
+        assertNull(secondStatistics.getCorrectRate());
+    }
+
+    @Test
+    void testGetStatistics_NoSubmissions() {
+        Long quizId = insertQuiz();
+
+        QuizStatisticsDto statistics = quizStatisticsService.getStatistics(quizId);
+
+        assertEquals(0, statistics.getSubmissionCount());
+        assertNull(statistics.getMeanScore());
+        assertNull(statistics.getMedianScore());
+        assertNull(statistics.getStandardDeviation());
+        assertNull(statistics.getMinScore());
+        assertTrue(statistics.getHistogram().stream().allMatch(bucket -> bucket.getCount() == 0));
+        assertTrue(statistics.getQuestions().isEmpty());
+    }
+
+    private Long insertUser(String username, String role) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, password, full_name, email, role) VALUES (?, ?, ?, ?, ?) RETURNING id",
+                Long.class, username, "password", username, username + "@example.com", role);
+    }
+
+    private Long insertQuiz() {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO quizzes (title, start_date, end_date, duration_minutes, course_id, creator_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?) RETURNING id",
+                Long.class, "Quiz", now.minusDays(1), now.plusDays(1), 30, courseId, professorId);
+    }
+
+    private Long insertQuestion(Long quizId, String text, int order) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO questions (quiz_id, text, type, points, \"order\") VALUES (?, ?, 'TEXT', 1, ?) RETURNING id",
+                Long.class, quizId, text, order);
+    }
+
+    private Long insertAttempt(Long quizId, Long studentId, boolean completed, Integer score) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO quiz_attempts (quiz_id, student_id, start_time, completed, score, max_score) " +
+                "VALUES (?, ?, ?, ?, ?, 10) RETURNING id",
+                Long.class, quizId, studentId, now.minusHours(1), completed, score);
+    }
+
+    private void insertAnswer(Long attemptId, Long questionId, int points) {
+        jdbcTemplate.update(
+                "INSERT INTO quiz_answers (attempt_id, question_id, text_answer, points_awarded, graded) VALUES (?, ?, 'answer', ?, TRUE)",
+                attemptId, questionId, points);
+    }
+}
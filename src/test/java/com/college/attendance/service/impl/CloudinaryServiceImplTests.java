@@ -0,0 +1,76 @@
+package com.college.attendance.service.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CloudinaryServiceImplTests {
+
+    private static final long THRESHOLD = 16;
+
+    @TempDir
+    Path tempDir;
+
+    private Uploader uploader;
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploader = mock(Uploader.class);
+        Cloudinary cloudinary = mock(Cloudinary.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap())).thenReturn(Map.of("secure_url", "https://cdn.example.com/small"));
+        when(uploader.uploadLarge(any(), anyMap())).thenReturn(Map.of("secure_url", "https://cdn.example.com/large"));
+        cloudinaryService = new CloudinaryServiceImpl(cloudinary, THRESHOLD);
+    }
+
+    @Test
+    void testUploadFile_UpToThresholdInOneRequest() throws Exception {
+        Path file = Files.write(tempDir.resolve("notes.pdf"), new byte[(int) THRESHOLD]);
+
+        assertEquals("https://cdn.example.com/small", cloudinaryService.uploadFile(file, "Lecture notes.pdf"));
+
+        verify(uploader).upload(eq(file.toFile()), argThat(options ->
+                "raw".equals(options.get("resource_type"))
+                        && ((String) options.get("public_id")).endsWith("_Lecture_notes")));
+        verify(uploader, never()).uploadLarge(any(), anyMap());
+    }
+
+    @Test
+    void testUploadFile_AboveThresholdInChunks() throws Exception {
+        Path file = Files.write(tempDir.resolve("recording.png"), new byte[(int) THRESHOLD + 1]);
+
+        assertEquals("https://cdn.example.com/large", cloudinaryService.uploadFile(file, "recording.png"));
+
+        verify(uploader).uploadLarge(eq(file.toFile()), argThat(options ->
+                "image".equals(options.get("resource_type"))
+                        && ((String) options.get("public_id")).startsWith("uploads/")));
+        verify(uploader, never()).upload(any(), anyMap());
+    }
+
+    @Test
+    void testUploadFile_MissingSecureUrl() throws Exception {
+        when(uploader.uploadLarge(any(File.class), anyMap())).thenReturn(Map.of());
+        Path file = Files.write(tempDir.resolve("archive.zip"), new byte[(int) THRESHOLD * 2]);
+
+        assertThrows(IOException.class, () -> cloudinaryService.uploadFile(file, "archive.zip"));
+    }
+}